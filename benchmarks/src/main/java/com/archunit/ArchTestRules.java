@@ -0,0 +1,113 @@
+package com.archunit;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.lang.ArchRule;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The {@code @ArchTest} rules of the six suites, named {@code <Suite>.<rule>} and checked the way ArchUnit's JUnit
+ * engine checks them: a rule field with {@link ArchRule#check}, a rule method by calling it with the classes. Both
+ * throw an {@link AssertionError} when the rule is violated. The suites' shared import test is not a rule of its own.
+ */
+final class ArchTestRules {
+
+    static final List<Class<?>> SUITES = List.of(
+        LayeredArchitectureTest.class,
+        CoreDomainArchitectureTest.class,
+        ApiAdapterArchitectureTest.class,
+        DatabaseAdapterArchitectureTest.class,
+        InfrastructureArchitectureTest.class,
+        AdapterStructureTest.class);
+
+    // The header of ArchUnit's failure report, e.g. "Rule '...' was violated (3 times):"
+    private static final Pattern VIOLATED = Pattern.compile("Rule '.*?' was violated \\((\\d+) times\\)", Pattern.DOTALL);
+
+    private ArchTestRules() {
+    }
+
+    static List<String> names() {
+        List<String> names = new ArrayList<>();
+        for (Class<?> suite : SUITES) {
+            for (Field field : suite.getDeclaredFields()) {
+                if (field.isAnnotationPresent(ArchTest.class) && ArchRule.class.isAssignableFrom(field.getType())) {
+                    names.add(suite.getSimpleName() + "." + field.getName());
+                }
+            }
+            for (Method method : suite.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(ArchTest.class)) {
+                    names.add(suite.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+        return names;
+    }
+
+    static Consumer<JavaClasses> rule(String name) {
+        int dot = name.indexOf('.');
+        Class<?> suite = SUITES.stream()
+            .filter(candidate -> candidate.getSimpleName().equals(name.substring(0, Math.max(dot, 0))))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("No suite of rule " + name + ", expected one of " + SUITES));
+        String member = name.substring(dot + 1);
+        try {
+            Field field = suite.getDeclaredField(member);
+            if (Modifier.isStatic(field.getModifiers()) && ArchRule.class.isAssignableFrom(field.getType())) {
+                field.setAccessible(true);
+                ArchRule rule = (ArchRule) field.get(null);
+                return rule::check;
+            }
+        } catch (NoSuchFieldException e) {
+            // A rule method then
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not read rule " + name, e);
+        }
+        try {
+            Method method = suite.getDeclaredMethod(member, JavaClasses.class);
+            method.setAccessible(true);
+            return classes -> invoke(method, classes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("No rule " + name + ", expected one of " + names(), e);
+        }
+    }
+
+    // The number of violations the rule reports on the classes, summed over the rules a rule method checks
+    static int violations(String name, JavaClasses classes) {
+        try {
+            rule(name).accept(classes);
+            return 0;
+        } catch (AssertionError e) {
+            int violations = 0;
+            Matcher violated = VIOLATED.matcher(String.valueOf(e.getMessage()));
+            while (violated.find()) {
+                violations += Integer.parseInt(violated.group(1));
+            }
+            if (violations == 0) {
+                throw e;
+            }
+            return violations;
+        }
+    }
+
+    private static void invoke(Method method, JavaClasses classes) {
+        try {
+            method.invoke(null, classes);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Rule " + method.getName() + " failed", e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not call rule " + method.getName(), e);
+        }
+    }
+}
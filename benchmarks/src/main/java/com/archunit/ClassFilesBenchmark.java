@@ -0,0 +1,73 @@
+package com.archunit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The work in front of the import: reading the class files of a multi-module code base, once scanning their constant
+ * pools for the application root and once hashing them for the import cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ClassFilesBenchmark {
+
+    @Param({"10000", "100000"})
+    public int classes;
+
+    @Param("24")
+    public int modules;
+
+    private List<Path> classFiles;
+
+    @Setup
+    public void generate() {
+        classFiles = new ArrayList<>();
+        for (Path root : SyntheticCodeBase.of(classes, modules).roots()) {
+            try (Stream<Path> files = Files.walk(root)) {
+                files.filter(file -> file.toString().endsWith(".class")).forEach(classFiles::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not list class files in " + root, e);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<ConstantPool> scanConstantPools() {
+        List<ConstantPool> constantPools = new ArrayList<>(classFiles.size());
+        for (Path classFile : classFiles) {
+            constantPools.add(ConstantPool.read(classFile));
+        }
+        return constantPools;
+    }
+
+    @Benchmark
+    public List<ClassFileSnapshot.FileState> hashClassFiles() {
+        List<ClassFileSnapshot.FileState> states = new ArrayList<>(classFiles.size());
+        for (Path classFile : classFiles) {
+            states.add(ClassFileSnapshot.FileState.of(classFile, null));
+        }
+        return states;
+    }
+}
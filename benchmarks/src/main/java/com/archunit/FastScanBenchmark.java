@@ -0,0 +1,94 @@
+package com.archunit;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.lang.EvaluationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * The fast lane of {@link PackageDependencyScanTest} against the suites it stands in for: the package dependency rules
+ * of {@link CoreDomainArchitectureTest} and {@code hexagonal_architecture_is_respected}, both starting from the class
+ * files on disk. One side imports the classes and checks the rules, the other reads the constant pools into a
+ * {@link CompactClassGraph} and scans it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FastScanBenchmark {
+
+    private static final List<String> RULES = List.of(
+        "CoreDomainArchitectureTest.core_should_not_depend_on_adapters",
+        "CoreDomainArchitectureTest.core_should_not_depend_on_infrastructure_config_or_util",
+        "CoreDomainArchitectureTest.core_should_not_depend_on_jpa",
+        "CoreDomainArchitectureTest.core_should_not_depend_on_jackson",
+        "CoreDomainArchitectureTest.core_should_not_depend_on_web_frameworks",
+        "LayeredArchitectureTest.hexagonal_architecture_is_respected");
+
+    @Param({"10000", "100000"})
+    public int classes;
+
+    private SyntheticCodeBase codeBase;
+    private List<Path> classFiles;
+    private List<Consumer<JavaClasses>> rules;
+
+    @Setup
+    public void generate() {
+        codeBase = SyntheticCodeBase.of(classes);
+        classFiles = new ArrayList<>();
+        for (Path root : codeBase.roots()) {
+            try (Stream<Path> files = Files.walk(root)) {
+                files.filter(file -> file.toString().endsWith(".class")).forEach(classFiles::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not list class files in " + root, e);
+            }
+        }
+        rules = new ArrayList<>();
+        RULES.forEach(rule -> rules.add(ArchTestRules.rule(rule)));
+    }
+
+    @Benchmark
+    public JavaClasses importAndCheck() {
+        JavaClasses javaClasses = codeBase.importClasses();
+        rules.forEach(rule -> rule.accept(javaClasses));
+        return javaClasses;
+    }
+
+    @Benchmark
+    public List<EvaluationResult> scan() {
+        CompactClassGraph graph = CompactClassGraph.read(classFiles);
+        return List.of(
+            PackageDependencyScanTest.evaluate(CoreDomainArchitectureTest.core_should_not_depend_on_adapters,
+                graph, CoreDomainArchitectureTest.ADAPTER_PACKAGES),
+            PackageDependencyScanTest.evaluate(CoreDomainArchitectureTest.core_should_not_depend_on_infrastructure_config_or_util,
+                graph, CoreDomainArchitectureTest.INFRASTRUCTURE_CONFIG_OR_UTIL_PACKAGES),
+            PackageDependencyScanTest.evaluate(CoreDomainArchitectureTest.core_should_not_depend_on_jpa,
+                graph, CoreDomainArchitectureTest.JPA_PACKAGES),
+            PackageDependencyScanTest.evaluate(CoreDomainArchitectureTest.core_should_not_depend_on_jackson,
+                graph, CoreDomainArchitectureTest.JACKSON_PACKAGES),
+            PackageDependencyScanTest.evaluate(CoreDomainArchitectureTest.core_should_not_depend_on_web_frameworks,
+                graph, CoreDomainArchitectureTest.WEB_FRAMEWORK_PACKAGES),
+            PackageDependencyScanTest.evaluateLayers(graph));
+    }
+}
@@ -0,0 +1,106 @@
+package com.archunit;
+
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+import com.tngtech.archunit.library.freeze.FreezingArchRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+
+/**
+ * A rule with the given number of violations, all of them frozen: the rule alone, frozen in the hashed store of
+ * {@code hexagonal.freeze} and frozen with ArchUnit's {@link FreezingArchRule} and its text file store. Single shots,
+ * since ArchUnit's store takes tens of seconds at 100,000 violations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FreezeBenchmark {
+
+    @Param("100000")
+    public int violations;
+
+    private Path stores;
+    private JavaClasses javaClasses;
+    private ArchRule rule;
+    private ArchRule hashedStoreRule;
+    private ArchRule textFileStoreRule;
+
+    @Setup
+    public void freeze() throws IOException {
+        javaClasses = SyntheticCodeBase.of(10000).importClasses();
+        int violationsPerClass = (violations + javaClasses.size() - 1) / javaClasses.size();
+        rule = classes().should(new ArchCondition<JavaClass>("have no frozen violations") {
+            @Override
+            public void check(JavaClass javaClass, ConditionEvents events) {
+                for (int i = 0; i < violationsPerClass; i++) {
+                    events.add(SimpleConditionEvent.violated(javaClass, String.format("Class <%s> has frozen violation %d in (%s.java:%d)",
+                        javaClass.getName(), i, javaClass.getSimpleName(), 10 + i)));
+                }
+            }
+        });
+
+        stores = Files.createTempDirectory("freeze-benchmark");
+        ArchConfiguration configuration = ArchConfiguration.get();
+        configuration.setProperty(SuiteRules.FREEZE_PROPERTY, "true");
+        configuration.setProperty(SuiteRules.FREEZE_PATH_PROPERTY, stores.resolve("hashed").toString());
+        configuration.setProperty(SuiteRules.ALLOW_STORE_CREATION_PROPERTY, "true");
+        configuration.setProperty("freeze.store.default.path", stores.resolve("text").toString());
+        configuration.setProperty("freeze.store.default.allowStoreCreation", "true");
+        hashedStoreRule = new SuiteRules(FreezeBenchmark.class).rule(rule);
+        textFileStoreRule = FreezingArchRule.freeze(rule);
+        hashedStoreRule.evaluate(javaClasses);
+        textFileStoreRule.evaluate(javaClasses);
+    }
+
+    @TearDown
+    public void deleteStores() throws IOException {
+        try (Stream<Path> paths = Files.walk(stores)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public EvaluationResult unfrozen() {
+        return rule.evaluate(javaClasses);
+    }
+
+    @Benchmark
+    public EvaluationResult hashedStore() {
+        return hashedStoreRule.evaluate(javaClasses);
+    }
+
+    @Benchmark
+    public EvaluationResult textFileStore() {
+        return textFileStoreRule.evaluate(javaClasses);
+    }
+}
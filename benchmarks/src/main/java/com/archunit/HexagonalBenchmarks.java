@@ -0,0 +1,41 @@
+package com.archunit;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with JMH's command line options, e.g. {@code java -jar target/benchmarks.jar RuleBenchmark
+ * -p classes=10000}, and writes the results as JSON to {@code target/jmh-result.json} (change with {@code -rff}), so
+ * the results of two versions can be compared. {@link RuleBenchmark} runs for every rule of the suites unless
+ * {@code -p rule=...} selects some.
+ */
+public final class HexagonalBenchmarks {
+
+    static final String RESULT_FILE = "target/jmh-result.json";
+
+    private HexagonalBenchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+            || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResult().hasValue()) {
+            options.result(RESULT_FILE);
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getParameter("rule").hasValue()) {
+            options.param("rule", ArchTestRules.names().toArray(new String[0]));
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,46 @@
+package com.archunit;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class import of the synthetic code bases, with the import options of the suites.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ImportBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int classes;
+
+    @Param("24")
+    public int modules;
+
+    private SyntheticCodeBase codeBase;
+
+    @Setup
+    public void generate() {
+        codeBase = SyntheticCodeBase.of(classes, modules);
+    }
+
+    @Benchmark
+    public JavaClasses importClasses() {
+        return codeBase.importClasses();
+    }
+}
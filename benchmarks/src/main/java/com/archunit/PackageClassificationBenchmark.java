@@ -0,0 +1,171 @@
+package com.archunit;
+
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.PackageMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The package classification of {@link PackagePatterns}, {@link Layer} and {@link AdapterTypes} against the string
+ * matching each of them replaced, over the classes and the dependencies of a synthetic code base: package identifiers
+ * per class, and layers and adapter types of both ends of every dependency. Run with {@code -prof gc} to compare the
+ * allocations too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PackageClassificationBenchmark {
+
+    // A selection of the identifiers the suites use
+    private static final String[] PACKAGE_IDENTIFIERS = {
+        "..core..", "..adapters..", "..infrastructure..", "..core.*.model..", "..core.*.port..", "..core.*.usecase..",
+        "..adapters.*.adapter..", "..adapters.*.entity..", "..infrastructure.config..", "..infrastructure.util.."
+    };
+    private static final String ADAPTERS = ".adapters.";
+
+    @Param("50000")
+    public int classes;
+
+    private String[] classPackages;
+    private String[] originPackages;
+    private String[] targetPackages;
+    private PackageMatcher[] packageMatchers;
+    private long[][] selectors;
+
+    @Setup
+    public void importClasses() {
+        List<String> packages = new ArrayList<>();
+        List<String> origins = new ArrayList<>();
+        List<String> targets = new ArrayList<>();
+        for (JavaClass javaClass : SyntheticCodeBase.of(classes).importClasses()) {
+            packages.add(javaClass.getPackageName());
+            for (Dependency dependency : javaClass.getDirectDependenciesFromSelf()) {
+                origins.add(javaClass.getPackageName());
+                targets.add(dependency.getTargetClass().getPackageName());
+            }
+        }
+        classPackages = packages.toArray(new String[0]);
+        originPackages = origins.toArray(new String[0]);
+        targetPackages = targets.toArray(new String[0]);
+        packageMatchers = new PackageMatcher[PACKAGE_IDENTIFIERS.length];
+        selectors = new long[PACKAGE_IDENTIFIERS.length][];
+        for (int i = 0; i < PACKAGE_IDENTIFIERS.length; i++) {
+            packageMatchers[i] = PackageMatcher.of(PACKAGE_IDENTIFIERS[i]);
+            selectors[i] = PackagePatterns.selectorOf(PACKAGE_IDENTIFIERS[i]);
+        }
+    }
+
+    @Benchmark
+    public int packageIdentifiersByMatcher() {
+        int matches = 0;
+        for (String packageName : classPackages) {
+            for (PackageMatcher packageMatcher : packageMatchers) {
+                if (packageMatcher.matches(packageName)) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int packageIdentifiersByPatterns() {
+        int matches = 0;
+        for (String packageName : classPackages) {
+            long[] mask = PackagePatterns.classify(packageName);
+            for (long[] selector : selectors) {
+                if (PackagePatterns.matches(mask, selector)) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int layersByContains() {
+        int layers = 0;
+        for (int i = 0; i < originPackages.length; i++) {
+            layers += layersByContains(originPackages[i]) + layersByContains(targetPackages[i]);
+        }
+        return layers;
+    }
+
+    @Benchmark
+    public int layersBySelector() {
+        int layers = 0;
+        for (int i = 0; i < originPackages.length; i++) {
+            layers += layersBySelector(originPackages[i]) + layersBySelector(targetPackages[i]);
+        }
+        return layers;
+    }
+
+    @Benchmark
+    public int adapterTypesBySubstring() {
+        int crossAdapterDependencies = 0;
+        for (int i = 0; i < originPackages.length; i++) {
+            if (!targetPackages[i].contains(ADAPTERS)) {
+                continue;
+            }
+            String originType = adapterTypeBySubstring(originPackages[i]);
+            String targetType = adapterTypeBySubstring(targetPackages[i]);
+            if (originType != null && targetType != null && !originType.equals(targetType)) {
+                crossAdapterDependencies++;
+            }
+        }
+        return crossAdapterDependencies;
+    }
+
+    @Benchmark
+    public int adapterTypesById() {
+        int crossAdapterDependencies = 0;
+        for (int i = 0; i < originPackages.length; i++) {
+            int originType = AdapterTypes.of(originPackages[i]);
+            int targetType = AdapterTypes.of(targetPackages[i]);
+            if (originType != AdapterTypes.NONE && targetType != AdapterTypes.NONE && originType != targetType) {
+                crossAdapterDependencies++;
+            }
+        }
+        return crossAdapterDependencies;
+    }
+
+    // The checks hexagonal_architecture_is_respected and its ignored dependencies did per class and edge
+    private static int layersByContains(String packageName) {
+        return (packageName.contains(".core.") ? 1 : 0)
+            | (packageName.contains(".adapters.") ? 2 : 0)
+            | (packageName.contains(".infrastructure.") ? 4 : 0);
+    }
+
+    private static int layersBySelector(String packageName) {
+        return (Layer.CORE.containsPackage(packageName) ? 1 : 0)
+            | (Layer.ADAPTERS.containsPackage(packageName) ? 2 : 0)
+            | (Layer.INFRASTRUCTURE.containsPackage(packageName) ? 4 : 0);
+    }
+
+    // The former extractAdapterType of LayeredArchitectureTest
+    private static String adapterTypeBySubstring(String packageName) {
+        if (!packageName.contains(ADAPTERS)) {
+            return null;
+        }
+        String afterAdapters = packageName.substring(packageName.indexOf(ADAPTERS) + ADAPTERS.length());
+        int dotIndex = afterAdapters.indexOf('.');
+        return dotIndex > 0 ? afterAdapters.substring(0, dotIndex) : afterAdapters;
+    }
+}
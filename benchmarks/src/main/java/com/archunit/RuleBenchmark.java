@@ -0,0 +1,78 @@
+package com.archunit;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Check of a single {@code @ArchTest} rule of the suites on an imported synthetic code base, including the failure
+ * report of a violated rule. {@link HexagonalBenchmarks} runs it for every rule in {@link ArchTestRules}, select some
+ * with {@code -p rule=LayeredArchitectureTest.adapters_should_depend_on_core,...}. The code bases have the api and
+ * database adapters and no violations unless {@code adapterTypes} and {@code violationDensity} say otherwise, see
+ * {@link SyntheticCodeBase.Shape}.
+ *
+ * Every invocation checks a new view of the same classes, so the indexes built once per import - the ones of
+ * {@link ClassIndex} and {@link FusedRules} - are built again and count for every rule using them, as for the first
+ * rule of a run. The package classification caches are kept by package name and stay warm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RuleBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int classes;
+
+    // All rules when run by HexagonalBenchmarks, this one when run by JMH's own main class
+    @Param("LayeredArchitectureTest.hexagonal_architecture_is_respected")
+    public String rule;
+
+    @Param("2")
+    public int adapterTypes;
+
+    @Param("0")
+    public double violationDensity;
+
+    private JavaClasses javaClasses;
+    private JavaClasses view;
+    private Consumer<JavaClasses> check;
+
+    @Setup
+    public void importClasses() {
+        javaClasses = SyntheticCodeBase.of(SyntheticCodeBase.Shape.ofClasses(classes, adapterTypes)
+            .withViolationDensity(violationDensity)).importClasses();
+        check = ArchTestRules.rule(rule);
+    }
+
+    @Setup(Level.Invocation)
+    public void newView() {
+        view = javaClasses.that(DescribedPredicate.alwaysTrue());
+    }
+
+    @Benchmark
+    public Object check() {
+        try {
+            check.accept(view);
+            return null;
+        } catch (AssertionError violated) {
+            return violated;
+        }
+    }
+}
@@ -0,0 +1,590 @@
+package com.archunit;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Hexagonal applications of any size for the benchmarks and stress tests, written directly as class files with ASM
+ * instead of compiling sources. Every domain gets the packages the suites expect - core {@code model}, {@code port},
+ * {@code usecase} and {@code exceptions}, an adapter with its entities per adapter type and an infrastructure
+ * utility - wired and annotated the way a real Spring application is: controllers call inbound ports, services
+ * implement them and call outbound ports, and repository adapters implement those and map the model to JPA entities.
+ * The core is plain Java, its services are created by a {@code @Configuration} class next to the application.
+ *
+ * Without violations every rule of the suites passes. A {@link Shape#violationDensity} above zero breaks that many
+ * domains with one {@link Violation} each, taking turns over the kinds, so that the failure reports are measured too.
+ *
+ * The domains are spread over several class path roots, like the modules of a multi-module build. A code base is
+ * generated once below {@code target/synthetic-code-bases} and reused by the benchmark forks after it. {@link #main}
+ * writes one to any directory, to run the suites themselves on it.
+ */
+final class SyntheticCodeBase {
+
+    // Class path roots of the code bases, unless a benchmark varies them
+    static final int MODULES = 24;
+    // The api and database adapters every domain has, more adapter types come from OUTBOUND_ADAPTER_TYPES
+    static final int ADAPTER_TYPES = 2;
+
+    private static final String BASE_PACKAGE = "com/synthetic/app";
+    private static final List<String> OUTBOUND_ADAPTER_TYPES =
+        List.of("messaging", "external", "cache", "search", "storage", "notification");
+    // Part of the directory name, so that a changed generator never benchmarks code bases of an older one
+    private static final int GENERATOR_VERSION = 2;
+    private static final String COMPLETE = ".complete";
+
+    private static final String OBJECT = "java/lang/Object";
+    private static final String SPRING_BOOT_APPLICATION = "Lorg/springframework/boot/autoconfigure/SpringBootApplication;";
+    private static final String CONFIGURATION = "Lorg/springframework/context/annotation/Configuration;";
+    private static final String BEAN = "Lorg/springframework/context/annotation/Bean;";
+    private static final String COMPONENT = "Lorg/springframework/stereotype/Component;";
+    private static final String SERVICE = "Lorg/springframework/stereotype/Service;";
+    private static final String REPOSITORY = "Lorg/springframework/stereotype/Repository;";
+    private static final String REST_CONTROLLER = "Lorg/springframework/web/bind/annotation/RestController;";
+    private static final String ENTITY = "Ljakarta/persistence/Entity;";
+    private static final String TABLE = "Ljakarta/persistence/Table;";
+    private static final String ID = "Ljakarta/persistence/Id;";
+
+    /**
+     * The ways a domain breaks the architecture, each reported by other rules of the suites.
+     */
+    enum Violation {
+        // The model holds a database entity
+        CORE_DEPENDS_ON_ADAPTER,
+        // The use case is a Spring @Service
+        SPRING_ANNOTATION_IN_CORE,
+        // The model is a JPA @Entity
+        JPA_ANNOTATION_IN_CORE,
+        // The controller holds the repository adapter
+        ADAPTER_DEPENDS_ON_OTHER_ADAPTER_TYPE,
+        // The configuration creating the use case lives in infrastructure.config
+        CORE_BEANS_IN_INFRASTRUCTURE_CONFIG
+    }
+
+    /**
+     * What to generate: the number of domains, the adapter types of every domain, the share of domains with a
+     * violation and the number of class path roots.
+     */
+    static final class Shape {
+        final int domains;
+        final int adapterTypes;
+        final double violationDensity;
+        final int modules;
+
+        Shape(int domains, int adapterTypes, double violationDensity, int modules) {
+            if (domains < 1 || modules < 1) {
+                throw new IllegalArgumentException("A code base needs at least one domain and one module");
+            }
+            if (adapterTypes < ADAPTER_TYPES || adapterTypes > ADAPTER_TYPES + OUTBOUND_ADAPTER_TYPES.size()) {
+                throw new IllegalArgumentException("Adapter types must be between " + ADAPTER_TYPES + " and "
+                    + (ADAPTER_TYPES + OUTBOUND_ADAPTER_TYPES.size()) + ", not " + adapterTypes);
+            }
+            if (!(violationDensity >= 0 && violationDensity <= 1)) {
+                throw new IllegalArgumentException("Violation density must be between 0 and 1, not " + violationDensity);
+            }
+            this.domains = domains;
+            this.adapterTypes = adapterTypes;
+            this.violationDensity = violationDensity;
+            this.modules = modules;
+        }
+
+        /**
+         * About the given number of classes, rounded up to whole domains, without violations.
+         */
+        static Shape ofClasses(int classes, int adapterTypes) {
+            int perDomain = classesPerDomain(adapterTypes);
+            return new Shape(Math.max(1, (classes - SHARED_CLASSES + perDomain - 1) / perDomain), adapterTypes, 0, MODULES);
+        }
+
+        Shape withViolationDensity(double violationDensity) {
+            return new Shape(domains, adapterTypes, violationDensity, modules);
+        }
+
+        Shape withModules(int modules) {
+            return new Shape(domains, adapterTypes, violationDensity, modules);
+        }
+
+        int classes() {
+            return SHARED_CLASSES + domains * classesPerDomain(adapterTypes);
+        }
+
+        // The violation of a domain, if any: spread evenly over the domains and taking turns over the kinds
+        Violation violationOf(int domain) {
+            long before = (long) Math.floor(domain * violationDensity);
+            if ((long) Math.floor((domain + 1) * violationDensity) == before) {
+                return null;
+            }
+            return Violation.values()[(int) (before % Violation.values().length)];
+        }
+
+        int violations() {
+            return (int) Math.floor(domains * violationDensity);
+        }
+
+        private String directoryName() {
+            return String.format(Locale.ROOT, "v%d-%d-domains-%d-adapter-types-%s-violations-%d-modules",
+                GENERATOR_VERSION, domains, adapterTypes, violationDensity, modules);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d domains, %d adapter types, violation density %s, %d modules",
+                domains, adapterTypes, violationDensity, modules);
+        }
+    }
+
+    // The application and the infrastructure configuration, written once per code base
+    private static final int SHARED_CLASSES = 2;
+
+    // Model (3), inbound and outbound port, use case, exception, configuration, utility, an adapter and an entity per
+    // adapter type and an outbound port per adapter type beyond api and database
+    private static int classesPerDomain(int adapterTypes) {
+        return 9 + 2 * adapterTypes + (adapterTypes - ADAPTER_TYPES);
+    }
+
+    private final List<Path> roots;
+    private final Shape shape;
+
+    private SyntheticCodeBase(List<Path> roots, Shape shape) {
+        this.roots = roots;
+        this.shape = shape;
+    }
+
+    static SyntheticCodeBase of(int classes) {
+        return of(classes, MODULES);
+    }
+
+    /**
+     * A code base of about the given number of classes (rounded up to whole domains) in the given number of roots,
+     * with the api and database adapters only and without violations.
+     */
+    static SyntheticCodeBase of(int classes, int modules) {
+        return of(Shape.ofClasses(classes, ADAPTER_TYPES).withModules(modules));
+    }
+
+    static SyntheticCodeBase of(Shape shape) {
+        Path directory = Paths.get("target", "synthetic-code-bases", shape.directoryName());
+        try {
+            if (!Files.exists(directory.resolve(COMPLETE))) {
+                delete(directory);
+                generate(shape, directory);
+                Files.writeString(directory.resolve(COMPLETE), shape.toString());
+            }
+            return new SyntheticCodeBase(roots(shape, directory), shape);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not generate the synthetic code base " + directory, e);
+        }
+    }
+
+    List<Path> roots() {
+        return roots;
+    }
+
+    int classes() {
+        return shape.classes();
+    }
+
+    int violations() {
+        return shape.violations();
+    }
+
+    // With the import options of the suites, like their shared class import
+    JavaClasses importClasses() {
+        return new ClassFileImporter()
+            .withImportOptions(ApplicationClassFiles.importOptionsOf(LayeredArchitectureTest.class))
+            .importPaths(roots);
+    }
+
+    /**
+     * Writes a code base for a stress test of the suites, e.g.
+     * {@code java -cp target/benchmarks.jar com.archunit.SyntheticCodeBase /tmp/app domains=5000 adapterTypes=4
+     * violationDensity=0.01} and then {@code mvn test -Dmaven.test.additionalClasspath=<printed roots>} in the
+     * project. The application root is detected from the generated {@code @SpringBootApplication} class.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: SyntheticCodeBase <directory> [domains=1000] [adapterTypes=" + ADAPTER_TYPES
+                + "] [violationDensity=0] [modules=1]");
+            System.exit(1);
+        }
+        int domains = 1000;
+        int adapterTypes = ADAPTER_TYPES;
+        double violationDensity = 0;
+        int modules = 1;
+        for (String argument : List.of(args).subList(1, args.length)) {
+            String[] option = argument.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected <name>=<value> instead of " + argument);
+            }
+            switch (option[0]) {
+                case "domains" -> domains = Integer.parseInt(option[1]);
+                case "adapterTypes" -> adapterTypes = Integer.parseInt(option[1]);
+                case "violationDensity" -> violationDensity = Double.parseDouble(option[1]);
+                case "modules" -> modules = Integer.parseInt(option[1]);
+                default -> throw new IllegalArgumentException("Unknown option " + option[0]);
+            }
+        }
+        Shape shape = new Shape(domains, adapterTypes, violationDensity, modules);
+        Path directory = Paths.get(args[0]);
+        delete(directory);
+        generate(shape, directory);
+        System.out.printf("Wrote %d classes with %d violations (%s) to %s%n",
+            shape.classes(), shape.violations(), shape, directory);
+        System.out.println(roots(shape, directory).stream()
+            .map(root -> root.toAbsolutePath().toString())
+            .collect(Collectors.joining(",")));
+    }
+
+    private static List<Path> roots(Shape shape, Path directory) {
+        List<Path> roots = new ArrayList<>();
+        for (int module = 0; module < shape.modules; module++) {
+            roots.add(directory.resolve(String.format("module-%02d", module)));
+        }
+        return roots;
+    }
+
+    private static void generate(Shape shape, Path directory) throws IOException {
+        List<Path> roots = roots(shape, directory);
+        Writer writer = new Writer(shape.adapterTypes);
+        writer.writeApplication(roots.get(0));
+        for (int domain = 0; domain < shape.domains; domain++) {
+            writer.writeDomain(roots.get(domain % roots.size()), domain, shape.violationOf(domain));
+        }
+        if (writer.written != shape.classes()) {
+            throw new IllegalStateException("Wrote " + writer.written + " classes instead of " + shape.classes());
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static final class Writer implements Opcodes {
+        private final List<String> outboundAdapterTypes;
+        private int written;
+
+        Writer(int adapterTypes) {
+            this.outboundAdapterTypes = OUTBOUND_ADAPTER_TYPES.subList(0, adapterTypes - ADAPTER_TYPES);
+        }
+
+        // The application and an infrastructure configuration of infrastructure concerns only
+        void writeApplication(Path root) throws IOException {
+            String application = BASE_PACKAGE + "/SyntheticApplication";
+            ClassWriter writer = begin(application, OBJECT);
+            annotate(writer, SPRING_BOOT_APPLICATION);
+            constructor(writer, application, OBJECT);
+            write(root, application, writer);
+
+            String infrastructureConfiguration = BASE_PACKAGE + "/infrastructure/config/InfrastructureConfiguration";
+            writer = begin(infrastructureConfiguration, OBJECT);
+            annotate(writer, CONFIGURATION);
+            constructor(writer, infrastructureConfiguration, OBJECT);
+            MethodVisitor method = writer.visitMethod(ACC_PUBLIC, "clock", "()Ljava/time/Clock;", null, null);
+            method.visitAnnotation(BEAN, true).visitEnd();
+            method.visitCode();
+            method.visitMethodInsn(INVOKESTATIC, "java/time/Clock", "systemUTC", "()Ljava/time/Clock;", false);
+            method.visitInsn(ARETURN);
+            end(method);
+            write(root, infrastructureConfiguration, writer);
+        }
+
+        void writeDomain(Path root, int index, Violation violation) throws IOException {
+            String name = "Domain" + index;
+            String core = BASE_PACKAGE + "/core/domain" + index;
+            String model = core + "/model/" + name;
+            String id = core + "/model/" + name + "Id";
+            String line = core + "/model/" + name + "Line";
+            String repository = core + "/port/" + name + "Repository";
+            String commandHandler = core + "/port/" + name + "CommandHandler";
+            String service = core + "/usecase/" + name + "Service";
+            String notFound = core + "/exceptions/" + name + "NotFoundException";
+            String configuration = (violation == Violation.CORE_BEANS_IN_INFRASTRUCTURE_CONFIG
+                ? BASE_PACKAGE + "/infrastructure/config/" : BASE_PACKAGE + "/") + name + "Configuration";
+            String controller = BASE_PACKAGE + "/adapters/api/adapter/" + name + "Controller";
+            String dto = BASE_PACKAGE + "/adapters/api/entity/" + name + "Dto";
+            String repositoryAdapter = BASE_PACKAGE + "/adapters/database/adapter/" + name + "RepositoryAdapter";
+            String entity = BASE_PACKAGE + "/adapters/database/entity/" + name + "Entity";
+            String validation = BASE_PACKAGE + "/infrastructure/util/" + name + "Validation";
+
+            // Model: the aggregate with its id and a line
+            ClassWriter writer = begin(id, OBJECT);
+            constructor(writer, id, OBJECT);
+            write(root, id, writer);
+
+            writer = begin(line, OBJECT);
+            writer.visitField(ACC_PRIVATE, "quantity", "I", null, null).visitEnd();
+            constructor(writer, line, OBJECT);
+            write(root, line, writer);
+
+            writer = begin(model, OBJECT);
+            if (violation == Violation.JPA_ANNOTATION_IN_CORE) {
+                annotate(writer, ENTITY);
+            }
+            writer.visitField(ACC_PRIVATE, "id", type(id), null, null).visitEnd();
+            writer.visitField(ACC_PRIVATE, "line", type(line), null, null).visitEnd();
+            if (violation == Violation.CORE_DEPENDS_ON_ADAPTER) {
+                writer.visitField(ACC_PRIVATE, "entity", type(entity), null, null).visitEnd();
+            }
+            MethodVisitor method = writer.visitMethod(ACC_PUBLIC, "<init>", "(" + type(id) + ")V", null, null);
+            method.visitCode();
+            method.visitVarInsn(ALOAD, 0);
+            method.visitMethodInsn(INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+            method.visitVarInsn(ALOAD, 0);
+            method.visitVarInsn(ALOAD, 1);
+            method.visitFieldInsn(PUTFIELD, model, "id", type(id));
+            method.visitVarInsn(ALOAD, 0);
+            method.visitTypeInsn(NEW, line);
+            method.visitInsn(DUP);
+            method.visitMethodInsn(INVOKESPECIAL, line, "<init>", "()V", false);
+            method.visitFieldInsn(PUTFIELD, model, "line", type(line));
+            method.visitInsn(RETURN);
+            end(method);
+            method = writer.visitMethod(ACC_PUBLIC, "getId", "()" + type(id), null, null);
+            method.visitCode();
+            method.visitVarInsn(ALOAD, 0);
+            method.visitFieldInsn(GETFIELD, model, "id", type(id));
+            method.visitInsn(ARETURN);
+            end(method);
+            write(root, model, writer);
+
+            // Ports: an outbound repository and an inbound command handler
+            writer = beginInterface(repository);
+            writer.visitMethod(ACC_PUBLIC | ACC_ABSTRACT, "save", "(" + type(model) + ")" + type(model), null, null).visitEnd();
+            writer.visitMethod(ACC_PUBLIC | ACC_ABSTRACT, "findById", "(" + type(id) + ")" + type(model), null, null).visitEnd();
+            write(root, repository, writer);
+
+            writer = beginInterface(commandHandler);
+            writer.visitMethod(ACC_PUBLIC | ACC_ABSTRACT, "create", "(" + type(id) + ")" + type(model), null, null).visitEnd();
+            write(root, commandHandler, writer);
+
+            // Use case: implements the inbound port with the outbound one
+            writer = begin(service, OBJECT, commandHandler);
+            if (violation == Violation.SPRING_ANNOTATION_IN_CORE) {
+                annotate(writer, SERVICE);
+            }
+            writer.visitField(ACC_PRIVATE, "repository", type(repository), null, null).visitEnd();
+            constructor(writer, service, OBJECT, "repository", repository);
+            method = writer.visitMethod(ACC_PUBLIC, "create", "(" + type(id) + ")" + type(model), null, null);
+            method.visitCode();
+            method.visitVarInsn(ALOAD, 0);
+            method.visitFieldInsn(GETFIELD, service, "repository", type(repository));
+            method.visitTypeInsn(NEW, model);
+            method.visitInsn(DUP);
+            method.visitVarInsn(ALOAD, 1);
+            method.visitMethodInsn(INVOKESPECIAL, model, "<init>", "(" + type(id) + ")V", false);
+            method.visitMethodInsn(INVOKEINTERFACE, repository, "save", "(" + type(model) + ")" + type(model), true);
+            method.visitInsn(ARETURN);
+            end(method);
+            write(root, service, writer);
+
+            writer = begin(notFound, "java/lang/RuntimeException");
+            constructor(writer, notFound, "java/lang/RuntimeException");
+            write(root, notFound, writer);
+
+            // Configuration: creates the use case from the outbound port
+            writer = begin(configuration, OBJECT);
+            annotate(writer, CONFIGURATION);
+            constructor(writer, configuration, OBJECT);
+            method = writer.visitMethod(ACC_PUBLIC, "commandHandler", "(" + type(repository) + ")" + type(commandHandler), null, null);
+            method.visitAnnotation(BEAN, true).visitEnd();
+            method.visitCode();
+            method.visitTypeInsn(NEW, service);
+            method.visitInsn(DUP);
+            method.visitVarInsn(ALOAD, 1);
+            method.visitMethodInsn(INVOKESPECIAL, service, "<init>", "(" + type(repository) + ")V", false);
+            method.visitInsn(ARETURN);
+            end(method);
+            write(root, configuration, writer);
+
+            // Api adapter: a controller calling the inbound port and answering with a dto
+            writer = begin(dto, OBJECT);
+            writer.visitField(ACC_PRIVATE, "id", type(id), null, null).visitEnd();
+            fromModel(writer, dto, model, id);
+            write(root, dto, writer);
+
+            writer = begin(controller, OBJECT);
+            annotate(writer, REST_CONTROLLER);
+            writer.visitField(ACC_PRIVATE, "commandHandler", type(commandHandler), null, null).visitEnd();
+            if (violation == Violation.ADAPTER_DEPENDS_ON_OTHER_ADAPTER_TYPE) {
+                writer.visitField(ACC_PRIVATE, "repositoryAdapter", type(repositoryAdapter), null, null).visitEnd();
+            }
+            constructor(writer, controller, OBJECT, "commandHandler", commandHandler);
+            method = writer.visitMethod(ACC_PUBLIC, "create", "()" + type(dto), null, null);
+            method.visitCode();
+            method.visitVarInsn(ALOAD, 0);
+            method.visitFieldInsn(GETFIELD, controller, "commandHandler", type(commandHandler));
+            method.visitTypeInsn(NEW, id);
+            method.visitInsn(DUP);
+            method.visitMethodInsn(INVOKESPECIAL, id, "<init>", "()V", false);
+            method.visitMethodInsn(INVOKEINTERFACE, commandHandler, "create", "(" + type(id) + ")" + type(model), true);
+            method.visitVarInsn(ASTORE, 1);
+            method.visitTypeInsn(NEW, dto);
+            method.visitInsn(DUP);
+            method.visitVarInsn(ALOAD, 1);
+            method.visitMethodInsn(INVOKESPECIAL, dto, "<init>", "(" + type(model) + ")V", false);
+            method.visitInsn(ARETURN);
+            end(method);
+            write(root, controller, writer);
+
+            // Database adapter: implements the outbound port and maps the model to a JPA entity
+            writer = begin(entity, OBJECT);
+            annotate(writer, ENTITY);
+            annotate(writer, TABLE);
+            FieldVisitor field = writer.visitField(ACC_PRIVATE, "id", type(id), null, null);
+            field.visitAnnotation(ID, true).visitEnd();
+            field.visitEnd();
+            fromModel(writer, entity, model, id);
+            write(root, entity, writer);
+
+            writer = begin(repositoryAdapter, OBJECT, repository);
+            annotate(writer, REPOSITORY);
+            constructor(writer, repositoryAdapter, OBJECT);
+            method = writer.visitMethod(ACC_PUBLIC, "save", "(" + type(model) + ")" + type(model), null, null);
+            method.visitCode();
+            method.visitTypeInsn(NEW, entity);
+            method.visitInsn(DUP);
+            method.visitVarInsn(ALOAD, 1);
+            method.visitMethodInsn(INVOKESPECIAL, entity, "<init>", "(" + type(model) + ")V", false);
+            method.visitInsn(POP);
+            method.visitVarInsn(ALOAD, 1);
+            method.visitInsn(ARETURN);
+            end(method);
+            method = writer.visitMethod(ACC_PUBLIC, "findById", "(" + type(id) + ")" + type(model), null, null);
+            method.visitCode();
+            method.visitTypeInsn(NEW, notFound);
+            method.visitInsn(DUP);
+            method.visitMethodInsn(INVOKESPECIAL, notFound, "<init>", "()V", false);
+            method.visitInsn(ATHROW);
+            end(method);
+            write(root, repositoryAdapter, writer);
+
+            // Further outbound adapters: each implements a port of its own and sends a message built from the model
+            for (String adapterType : outboundAdapterTypes) {
+                String typeName = Character.toUpperCase(adapterType.charAt(0)) + adapterType.substring(1);
+                String port = core + "/port/" + name + typeName + "Port";
+                String adapter = BASE_PACKAGE + "/adapters/" + adapterType + "/adapter/" + name + typeName + "Adapter";
+                String message = BASE_PACKAGE + "/adapters/" + adapterType + "/entity/" + name + typeName + "Message";
+
+                writer = beginInterface(port);
+                writer.visitMethod(ACC_PUBLIC | ACC_ABSTRACT, "send", "(" + type(model) + ")V", null, null).visitEnd();
+                write(root, port, writer);
+
+                writer = begin(message, OBJECT);
+                writer.visitField(ACC_PRIVATE, "id", type(id), null, null).visitEnd();
+                fromModel(writer, message, model, id);
+                write(root, message, writer);
+
+                writer = begin(adapter, OBJECT, port);
+                annotate(writer, COMPONENT);
+                constructor(writer, adapter, OBJECT);
+                method = writer.visitMethod(ACC_PUBLIC, "send", "(" + type(model) + ")V", null, null);
+                method.visitCode();
+                method.visitTypeInsn(NEW, message);
+                method.visitInsn(DUP);
+                method.visitVarInsn(ALOAD, 1);
+                method.visitMethodInsn(INVOKESPECIAL, message, "<init>", "(" + type(model) + ")V", false);
+                method.visitInsn(POP);
+                method.visitInsn(RETURN);
+                end(method);
+                write(root, adapter, writer);
+            }
+
+            // Infrastructure: a utility on the model
+            writer = begin(validation, OBJECT);
+            constructor(writer, validation, OBJECT);
+            method = writer.visitMethod(ACC_PUBLIC | ACC_STATIC, "validate", "(" + type(model) + ")" + type(id), null, null);
+            method.visitCode();
+            method.visitVarInsn(ALOAD, 0);
+            method.visitMethodInsn(INVOKEVIRTUAL, model, "getId", "()" + type(id), false);
+            method.visitInsn(ARETURN);
+            end(method);
+            write(root, validation, writer);
+        }
+
+        private static ClassWriter begin(String name, String superName, String... interfaces) {
+            ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+            writer.visit(V17, ACC_PUBLIC | ACC_SUPER, name, null, superName, interfaces);
+            return writer;
+        }
+
+        private static ClassWriter beginInterface(String name) {
+            ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+            writer.visit(V17, ACC_PUBLIC | ACC_INTERFACE | ACC_ABSTRACT, name, null, OBJECT, null);
+            return writer;
+        }
+
+        // A runtime retained annotation without attributes
+        private static void annotate(ClassWriter writer, String annotation) {
+            writer.visitAnnotation(annotation, true).visitEnd();
+        }
+
+        // A constructor assigning its parameter, if any, to a field
+        private static void constructor(ClassWriter writer, String owner, String superName, String... field) {
+            String descriptor = field.length == 0 ? "()V" : "(" + type(field[1]) + ")V";
+            MethodVisitor method = writer.visitMethod(ACC_PUBLIC, "<init>", descriptor, null, null);
+            method.visitCode();
+            method.visitVarInsn(ALOAD, 0);
+            method.visitMethodInsn(INVOKESPECIAL, superName, "<init>", "()V", false);
+            if (field.length > 0) {
+                method.visitVarInsn(ALOAD, 0);
+                method.visitVarInsn(ALOAD, 1);
+                method.visitFieldInsn(PUTFIELD, owner, field[0], type(field[1]));
+            }
+            method.visitInsn(RETURN);
+            end(method);
+        }
+
+        // A constructor copying the id of the model, for the dtos, entities and messages
+        private static void fromModel(ClassWriter writer, String owner, String model, String id) {
+            MethodVisitor method = writer.visitMethod(ACC_PUBLIC, "<init>", "(" + type(model) + ")V", null, null);
+            method.visitCode();
+            method.visitVarInsn(ALOAD, 0);
+            method.visitMethodInsn(INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+            method.visitVarInsn(ALOAD, 0);
+            method.visitVarInsn(ALOAD, 1);
+            method.visitMethodInsn(INVOKEVIRTUAL, model, "getId", "()" + type(id), false);
+            method.visitFieldInsn(PUTFIELD, owner, "id", type(id));
+            method.visitInsn(RETURN);
+            end(method);
+        }
+
+        private static void end(MethodVisitor method) {
+            method.visitMaxs(0, 0);
+            method.visitEnd();
+        }
+
+        private static String type(String name) {
+            return "L" + name + ";";
+        }
+
+        private void write(Path root, String name, ClassWriter writer) throws IOException {
+            writer.visitEnd();
+            Path file = root.resolve(name + ".class");
+            Files.createDirectories(file.getParent());
+            Files.write(file, writer.toByteArray());
+            written++;
+        }
+    }
+}
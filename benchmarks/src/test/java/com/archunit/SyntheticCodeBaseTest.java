@@ -0,0 +1,74 @@
+package com.archunit;
+
+import com.archunit.SyntheticCodeBase.Shape;
+import com.archunit.SyntheticCodeBase.Violation;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SyntheticCodeBaseTest {
+
+    // The rules each kind of violation breaks, with the violations they report per broken domain
+    private static final Map<Violation, Map<String, Integer>> BROKEN_RULES = Map.of(
+        Violation.CORE_DEPENDS_ON_ADAPTER, Map.of(
+            "CoreDomainArchitectureTest.core_should_not_depend_on_adapters", 1,
+            "LayeredArchitectureTest.hexagonal_architecture_is_respected", 1),
+        Violation.SPRING_ANNOTATION_IN_CORE, Map.of(
+            "CoreDomainArchitectureTest.core_should_not_use_spring_annotations", 1),
+        Violation.JPA_ANNOTATION_IN_CORE, Map.of(
+            "CoreDomainArchitectureTest.core_should_not_use_jpa_annotations", 1,
+            "CoreDomainArchitectureTest.core_should_not_depend_on_jpa", 1,
+            "DatabaseAdapterArchitectureTest.jpa_entities_should_be_in_database_adapters", 1),
+        Violation.ADAPTER_DEPENDS_ON_OTHER_ADAPTER_TYPE, Map.of(
+            "LayeredArchitectureTest.adapters_should_not_depend_on_other_adapter_types", 1,
+            "ApiAdapterArchitectureTest.api_adapters_and_controllers_should_only_access_allowed_packages", 1),
+        // The @Bean method takes the outbound port, returns the inbound port and creates the use case
+        Violation.CORE_BEANS_IN_INFRASTRUCTURE_CONFIG, Map.of(
+            "InfrastructureArchitectureTest.configuration_classes_that_create_core_beans_should_not_be_in_infrastructure_config", 3,
+            "InfrastructureArchitectureTest.infrastructure_config_should_only_contain_infrastructure_concerns", 3));
+
+    @Test
+    void every_rule_passes_without_violations() {
+        Shape shape = new Shape(4, SyntheticCodeBase.ADAPTER_TYPES + 6, 0, 2);
+
+        assertEquals(expectedViolations(shape), violations(shape));
+    }
+
+    @Test
+    void every_violation_is_reported_by_the_rules_it_breaks() {
+        // Two domains of each kind
+        Shape shape = new Shape(2 * Violation.values().length, SyntheticCodeBase.ADAPTER_TYPES, 1, 2);
+
+        assertEquals(expectedViolations(shape), violations(shape));
+    }
+
+    @Test
+    void only_the_broken_domains_are_reported() {
+        Shape shape = new Shape(20, SyntheticCodeBase.ADAPTER_TYPES + 1, 0.25, 3);
+
+        assertEquals(expectedViolations(shape), violations(shape));
+    }
+
+    private static Map<String, Integer> violations(Shape shape) {
+        JavaClasses classes = SyntheticCodeBase.of(shape).importClasses();
+        Map<String, Integer> violations = new TreeMap<>();
+        ArchTestRules.names().forEach(rule -> violations.put(rule, ArchTestRules.violations(rule, classes)));
+        return violations;
+    }
+
+    private static Map<String, Integer> expectedViolations(Shape shape) {
+        Map<String, Integer> violations = new TreeMap<>();
+        ArchTestRules.names().forEach(rule -> violations.put(rule, 0));
+        for (int domain = 0; domain < shape.domains; domain++) {
+            Violation violation = shape.violationOf(domain);
+            if (violation != null) {
+                BROKEN_RULES.get(violation).forEach((rule, count) -> violations.merge(rule, count, Integer::sum));
+            }
+        }
+        return violations;
+    }
+}
@@ -14,6 +14,7 @@ LOCAL_MODE=false
 # Version configuration
 ARCHUNIT_VERSION="1.2.1"
 JUNIT_VERSION="5.10.0"
+JUNIT_PLATFORM_VERSION="1.10.0"
 SUREFIRE_VERSION="3.1.2"
 COMPILER_PLUGIN_VERSION="3.11.0"
 
@@ -193,11 +194,25 @@ if [[ ! -d "$SOURCE_TEST_DIR" ]]; then
     exit 1
 fi
 
+# Unit tests of the support classes, they test this repository and are not installed with the suites
+UNIT_TESTS=(
+    "AdapterTypesTest.java"
+    "ApplicationRootTest.java"
+    "ClassFileSnapshotTest.java"
+    "ConstantPoolTest.java"
+    "ImportCacheTest.java"
+    "SuiteRulesTest.java"
+)
+
 for test_file in "$SOURCE_TEST_DIR"/*.java; do
     if [[ -f "$test_file" ]]; then
         filename=$(basename "$test_file")
         target_file="$TEST_DIR/$filename"
 
+        if [[ " ${UNIT_TESTS[*]} " == *" $filename "* ]]; then
+            continue
+        fi
+
         # Check if file exists and we're not in update mode
         if [[ -f "$target_file" ]] && [[ "$UPDATE_MODE" = false ]]; then
             log_warning "File $filename already exists. Use -u to update."
@@ -206,13 +221,31 @@ for test_file in "$SOURCE_TEST_DIR"/*.java; do
 
         log_info "Installing $filename..."
 
-        # Copy file and update package name
-        sed "s/package com\.archunit;/package $TARGET_PACKAGE;/g" "$test_file" > "$target_file"
+        # Copy file and update package name, including static imports between the classes
+        sed -e "s/package com\.archunit;/package $TARGET_PACKAGE;/g" \
+            -e "s/import static com\.archunit\./import static $TARGET_PACKAGE./g" "$test_file" > "$target_file"
 
         log_success "Installed $filename"
     fi
 done
 
+# Register the test execution listeners (merged into existing service files)
+SOURCE_SERVICES_DIR="$TEST_SOURCE_DIR/src/test/resources/META-INF/services"
+if [[ -d "$SOURCE_SERVICES_DIR" ]]; then
+    mkdir -p "src/test/resources/META-INF/services"
+    for service_file in "$SOURCE_SERVICES_DIR"/*; do
+        target_file="src/test/resources/META-INF/services/$(basename "$service_file")"
+        touch "$target_file"
+        while IFS= read -r provider; do
+            provider="${provider/#com.archunit./$TARGET_PACKAGE.}"
+            if ! grep -qxF "$provider" "$target_file"; then
+                echo "$provider" >> "$target_file"
+                log_success "Registered $provider"
+            fi
+        done < "$service_file"
+    done
+fi
+
 # Update pom.xml dependencies
 log_info "Checking pom.xml dependencies..."
 
@@ -257,6 +290,16 @@ if ! grep -q "junit.version" pom.xml; then
     PROPERTIES_ADDED=true
 fi
 
+# Add junit.platform.version if missing
+if ! grep -q "junit.platform.version" pom.xml; then
+    log_info "Adding junit.platform.version property..."
+    sed -i.tmp "/<properties>/a\\
+        <junit.platform.version>$JUNIT_PLATFORM_VERSION</junit.platform.version>\\
+" pom.xml
+    rm -f pom.xml.tmp
+    PROPERTIES_ADDED=true
+fi
+
 # Add maven.surefire.version if missing
 if ! grep -q "maven.surefire.version" pom.xml; then
     log_info "Adding maven.surefire.version property..."
@@ -386,6 +429,36 @@ else
     log_info "JUnit 5 dependency already present"
 fi
 
+# Check if JUnit Platform Launcher dependency exists (needed by the test execution listeners)
+if ! grep -q "junit-platform-launcher" pom.xml; then
+    log_info "Adding JUnit Platform Launcher dependency to pom.xml..."
+
+    TEMP_POM="$TEMP_DIR/temp_pom_launcher.xml"
+    awk '
+        /<build>/ { in_build=1 }
+        /<\/build>/ { in_build=0 }
+        /<plugin>/ { in_plugin=1 }
+        /<\/plugin>/ { in_plugin=0 }
+        /<\/dependencies>/ && !in_build && !in_plugin && !added {
+            print "        <!-- JUnit Platform Launcher for the test execution listeners -->"
+            print "        <dependency>"
+            print "            <groupId>org.junit.platform</groupId>"
+            print "            <artifactId>junit-platform-launcher</artifactId>"
+            print "            <version>${junit.platform.version}</version>"
+            print "            <scope>test</scope>"
+            print "        </dependency>"
+            print $0
+            added=1
+            next
+        }
+        { print }
+    ' pom.xml > "$TEMP_POM"
+    mv "$TEMP_POM" pom.xml
+    log_success "Added JUnit Platform Launcher dependency to main dependencies section"
+else
+    log_info "JUnit Platform Launcher dependency already present"
+fi
+
 # Update Maven Surefire plugin if needed
 if ! grep -q "maven-surefire-plugin" pom.xml; then
     log_info "Adding Maven Surefire plugin for test execution..."
@@ -491,6 +564,9 @@ This directory contains comprehensive ArchUnit tests for validating hexagonal ar
 - **ApiAdapterArchitectureTest.java** - API adapter specific rules
 - **DatabaseAdapterArchitectureTest.java** - Database adapter specific rules
 - **InfrastructureArchitectureTest.java** - Infrastructure layer rules
+- **SharedClassImport.java** - Shared import configuration, imports the classes once for all suites
+- **PackageDependencyScanTest.java** - Fast constant pool scan of the core package dependency and layer rules (\`-Darchunit.hexagonal.fastscan.enabled=true\`)
+- **Other classes** - Supporting infrastructure (import cache, test execution listeners), no rules
 
 ## Running the Tests
 
@@ -1,43 +1,51 @@
 package com.archunit;
 
+import static com.archunit.ClassIndex.among;
+import static com.archunit.ClassIndex.simpleNameEndingWith;
+import static com.archunit.PackagePatterns.resideInAPackage;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.noClasses;
 
 import com.tngtech.archunit.core.importer.ImportOption;
 import com.tngtech.archunit.junit.AnalyzeClasses;
 import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.junit.ArchTests;
 import com.tngtech.archunit.lang.ArchRule;
 
 @AnalyzeClasses(
-    packages = "com",
+    locations = SharedClassImport.ApplicationLocations.class,
     importOptions = {
         ImportOption.DoNotIncludeTests.class,
         ImportOption.DoNotIncludeJars.class,
-        ImportOption.DoNotIncludeArchives.class
+        ImportOption.DoNotIncludeArchives.class,
+        SharedClassImport.TrackImports.class
     }
 )
 public class AdapterStructureTest {
 
+  @ArchTest
+  static final ArchTests shared_class_import = ArchTests.in(SharedClassImport.class);
+
+  private static final SuiteRules SUITE = new SuiteRules(AdapterStructureTest.class);
+
   @ArchTest
   static final ArchRule adapter_classes_should_implement_core_ports =
-      classes()
-          .that()
-          .resideInAPackage("..adapters.*.adapter..")
-          .and()
-          .haveSimpleNameEndingWith("Adapter")
-          .or()
-          .haveSimpleNameEndingWith("Controller")
-          .should()
-          .dependOnClassesThat()
-          .resideInAPackage("..core.*.port..")
-          .allowEmptyShould(true)
-          .because("Adapter classes should implement interfaces from core ports");
+      SUITE.rule(among(simpleNameEndingWith("Adapter", "Controller"),
+          classes()
+              .that(resideInAPackage("..adapters.*.adapter.."))
+              .and()
+              .haveSimpleNameEndingWith("Adapter")
+              .or()
+              .haveSimpleNameEndingWith("Controller")
+              .should()
+              .dependOnClassesThat(resideInAPackage("..core.*.port.."))
+              .allowEmptyShould(true)
+              .because("Adapter classes should implement interfaces from core ports")));
 
   @ArchTest
   static final ArchRule adapter_packages_contain_appropriate_classes =
-      classes()
-          .that()
-          .resideInAPackage("..adapters.*.adapter..")
+      SUITE.rule(classes()
+          .that(resideInAPackage("..adapters.*.adapter.."))
           .should()
           .haveSimpleNameEndingWith("Adapter")
           .orShould()
@@ -45,6 +53,6 @@ public class AdapterStructureTest {
           .orShould()
           .haveSimpleNameEndingWith("Repository")
           .allowEmptyShould(true)
-          .because("Classes in adapter packages should end with 'Adapter', 'Controller', or 'Repository'");
+          .because("Classes in adapter packages should end with 'Adapter', 'Controller', or 'Repository'"));
 
 }
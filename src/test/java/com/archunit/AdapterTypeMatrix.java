@@ -0,0 +1,106 @@
+package com.archunit;
+
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cross-adapter dependencies counted per pair of adapter types, for code bases with too many of them to report one by
+ * one. Enabled with {@code hexagonal.adapters.matrix=true}: {@code adapters_should_not_depend_on_other_adapter_types}
+ * then reports one violation per pair of adapter types with the number of dependencies and the first
+ * {@code hexagonal.adapters.matrix.samples} (default 3) of them, instead of one violation per dependency.
+ *
+ * Only the counts and the samples are kept, so memory does not grow with the number of dependencies.
+ */
+final class AdapterTypeMatrix {
+
+    static final String ENABLED_PROPERTY = "hexagonal.adapters.matrix";
+    static final String SAMPLES_PROPERTY = "hexagonal.adapters.matrix.samples";
+
+    private final int samplesPerCell;
+    private int size;
+    private long[] counts = new long[0];
+    private List<List<String>> samples = newSamples(0);
+
+    AdapterTypeMatrix(int samplesPerCell) {
+        this.samplesPerCell = samplesPerCell;
+    }
+
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(ArchConfiguration.get().getPropertyOrDefault(ENABLED_PROPERTY, "false"));
+    }
+
+    static AdapterTypeMatrix create() {
+        return new AdapterTypeMatrix(Integer.parseInt(ArchConfiguration.get().getPropertyOrDefault(SAMPLES_PROPERTY, "3")));
+    }
+
+    void add(int sourceType, String source, int targetType, String target) {
+        ensureSize(Math.max(sourceType, targetType) + 1);
+        int cell = sourceType * size + targetType;
+        counts[cell]++;
+        List<String> cellSamples = samples.get(cell);
+        if (cellSamples == null) {
+            cellSamples = new ArrayList<>(samplesPerCell);
+            samples.set(cell, cellSamples);
+        }
+        if (cellSamples.size() < samplesPerCell) {
+            cellSamples.add(String.format("Class %s in adapter type '%s' depends on class %s in adapter type '%s'",
+                source, AdapterTypes.name(sourceType), target, AdapterTypes.name(targetType)));
+        }
+    }
+
+    // One violation per pair of adapter types, in the order of their ids
+    void report(ConditionEvents events) {
+        long dependencies = 0;
+        int pairs = 0;
+        for (int cell = 0; cell < counts.length; cell++) {
+            if (counts[cell] == 0) {
+                continue;
+            }
+            String sourceType = AdapterTypes.name(cell / size);
+            String targetType = AdapterTypes.name(cell % size);
+            StringBuilder message = new StringBuilder(String.format("Adapter type '%s' depends on adapter type '%s' %d times",
+                sourceType, targetType, counts[cell]));
+            List<String> cellSamples = samples.get(cell);
+            for (String sample : cellSamples) {
+                message.append(System.lineSeparator()).append("    ").append(sample);
+            }
+            if (counts[cell] > cellSamples.size()) {
+                message.append(System.lineSeparator()).append("    ... ").append(counts[cell] - cellSamples.size()).append(" more");
+            }
+            events.add(SimpleConditionEvent.violated(sourceType + " -> " + targetType, message.toString()));
+            dependencies += counts[cell];
+            pairs++;
+        }
+        if (pairs > 0) {
+            events.setInformationAboutNumberOfViolations(String.format("%d times in %d adapter type pairs", dependencies, pairs));
+        }
+    }
+
+    private void ensureSize(int required) {
+        if (required <= size) {
+            return;
+        }
+        int newSize = Math.max(required, size * 2);
+        long[] newCounts = new long[newSize * newSize];
+        List<List<String>> newSamples = newSamples(newSize * newSize);
+        for (int source = 0; source < size; source++) {
+            System.arraycopy(counts, source * size, newCounts, source * newSize, size);
+            for (int target = 0; target < size; target++) {
+                newSamples.set(source * newSize + target, samples.get(source * size + target));
+            }
+        }
+        size = newSize;
+        counts = newCounts;
+        samples = newSamples;
+    }
+
+    // Cells without samples are null until their first dependency
+    private static List<List<String>> newSamples(int cells) {
+        return new ArrayList<>(Collections.nCopies(cells, null));
+    }
+}
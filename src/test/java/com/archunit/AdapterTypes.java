@@ -0,0 +1,63 @@
+package com.archunit;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adapter types (api, database, messaging, ...) as small int ids, resolved once per distinct package.
+ *
+ * The adapter type is the package segment right after {@code .adapters.}, e.g. {@code database} for
+ * {@code com.acme.shop.adapters.database.entity}. After the first lookup of a package, resolving its adapter type
+ * is a single map lookup without allocations, and two adapter types are compared as ints.
+ */
+final class AdapterTypes {
+
+    // Packages outside of the adapters, or the adapters package itself
+    static final int NONE = -1;
+
+    private static final String ADAPTERS = ".adapters.";
+
+    private static final Map<String, Integer> ID_BY_PACKAGE = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> ID_BY_NAME = new HashMap<>();
+    private static volatile String[] names = new String[0];
+
+    private AdapterTypes() {
+    }
+
+    static int of(String packageName) {
+        Integer id = ID_BY_PACKAGE.get(packageName);
+        if (id == null) {
+            id = idOf(nameOf(packageName));
+            ID_BY_PACKAGE.put(packageName, id);
+        }
+        return id;
+    }
+
+    static String name(int id) {
+        return id == NONE ? null : names[id];
+    }
+
+    private static String nameOf(String packageName) {
+        int adapters = packageName.indexOf(ADAPTERS);
+        if (adapters < 0) {
+            return null;
+        }
+        String afterAdapters = packageName.substring(adapters + ADAPTERS.length());
+        int dotIndex = afterAdapters.indexOf('.');
+        return dotIndex > 0 ? afterAdapters.substring(0, dotIndex) : afterAdapters;
+    }
+
+    private static synchronized int idOf(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        return ID_BY_NAME.computeIfAbsent(name, newName -> {
+            String[] registered = Arrays.copyOf(names, names.length + 1);
+            registered[names.length] = newName;
+            names = registered;
+            return names.length - 1;
+        });
+    }
+}
@@ -0,0 +1,67 @@
+package com.archunit;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class AdapterTypesTest {
+
+    private static final List<String> PACKAGES = List.of(
+        "com.acme.shop.adapters.api.controller",
+        "com.acme.shop.adapters.database.entity",
+        "com.acme.shop.adapters.database",
+        "com.acme.shop.adapters.messaging.listener",
+        "com.acme.shop.adapters",
+        "com.acme.shop.core.order.model",
+        "com.acme.shop.infrastructure.config");
+
+    // Enough for the JIT to compile the lookup, the budget leaves room for the measurement itself
+    private static final int WARMUP_LOOKUPS = 200_000;
+    private static final int MEASURED_LOOKUPS = 1_000_000;
+    private static final long ALLOCATION_BUDGET_BYTES = 1024;
+
+    @Test
+    void resolves_the_segment_after_adapters() {
+        assertEquals("database", AdapterTypes.name(AdapterTypes.of("com.acme.shop.adapters.database.entity")));
+        assertEquals("database", AdapterTypes.name(AdapterTypes.of("com.acme.shop.adapters.database")));
+        assertEquals(AdapterTypes.of("com.acme.shop.adapters.api"), AdapterTypes.of("com.acme.billing.adapters.api.dto"));
+        assertNotEquals(AdapterTypes.of("com.acme.shop.adapters.api"), AdapterTypes.of("com.acme.shop.adapters.database"));
+        assertEquals(AdapterTypes.NONE, AdapterTypes.of("com.acme.shop.adapters"));
+        assertEquals(AdapterTypes.NONE, AdapterTypes.of("com.acme.shop.core.order"));
+        assertNull(AdapterTypes.name(AdapterTypes.NONE));
+    }
+
+    @Test
+    void resolves_known_packages_without_allocating() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        String[] packages = PACKAGES.toArray(new String[0]);
+        long threadId = Thread.currentThread().getId();
+
+        int warmup = lookUp(packages, WARMUP_LOOKUPS);
+        long before = threads.getThreadAllocatedBytes(threadId);
+        int measured = lookUp(packages, MEASURED_LOOKUPS);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(warmup != 0 && measured != 0);
+        assertTrue(allocated < ALLOCATION_BUDGET_BYTES,
+            () -> String.format("%,d lookups allocated %,d bytes", MEASURED_LOOKUPS, allocated));
+    }
+
+    // Sums the ids, so the lookups can't be optimized away
+    private static int lookUp(String[] packages, int lookups) {
+        int sum = 0;
+        for (int i = 0; i < lookups; i++) {
+            sum += AdapterTypes.of(packages[i % packages.length]) + 2;
+        }
+        return sum;
+    }
+}
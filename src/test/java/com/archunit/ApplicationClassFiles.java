@@ -0,0 +1,73 @@
+package com.archunit;
+
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.core.importer.Location;
+import com.tngtech.archunit.core.importer.Locations;
+import com.tngtech.archunit.junit.AnalyzeClasses;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Finds the class files ArchUnit would import for a root package and a set of import options,
+ * without parsing any of them. Only class file directories are considered - the suites never import jars.
+ */
+final class ApplicationClassFiles {
+
+    private ApplicationClassFiles() {
+    }
+
+    static List<Path> find(String rootPackage, Collection<ImportOption> importOptions) {
+        List<Path> result = new ArrayList<>();
+        for (Location location : Locations.ofPackage(rootPackage)) {
+            if (!"file".equals(location.asURI().getScheme()) || !includes(importOptions, location)) {
+                continue;
+            }
+            Path root = Paths.get(location.asURI());
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(root)) {
+                files.filter(file -> file.getFileName().toString().endsWith(".class"))
+                    .filter(file -> includes(importOptions, Location.of(file)))
+                    .forEach(result::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not list class files in " + root, e);
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    // Import options declared by a suite, except for the import counter which must only be created by ArchUnit
+    static List<ImportOption> importOptionsOf(Class<?> suite) {
+        List<ImportOption> result = new ArrayList<>();
+        AnalyzeClasses analyzeClasses = suite.getAnnotation(AnalyzeClasses.class);
+        if (analyzeClasses == null) {
+            return result;
+        }
+        for (Class<? extends ImportOption> optionType : analyzeClasses.importOptions()) {
+            if (optionType == SharedClassImport.TrackImports.class) {
+                continue;
+            }
+            try {
+                result.add(optionType.getDeclaredConstructor().newInstance());
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Could not create import option " + optionType.getName(), e);
+            }
+        }
+        return result;
+    }
+
+    private static boolean includes(Collection<ImportOption> importOptions, Location location) {
+        return importOptions.stream().allMatch(option -> option.includes(location));
+    }
+}
@@ -0,0 +1,153 @@
+package com.archunit;
+
+import com.tngtech.archunit.ArchConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Root package of the application under test, narrowed from {@link SharedClassImport#ROOT_PACKAGE} to the package
+ * of the {@code @SpringBootApplication} class, so that other modules and generated code below {@code com} on the
+ * test class path are not imported. Enabled with {@code hexagonal.root.detect=true}.
+ *
+ * Without a {@code @SpringBootApplication} class the suites fall back to {@link SharedClassImport#ROOT_PACKAGE}.
+ * Several application classes narrow the import to their common package, and an application class misplaced in
+ * a hexagonal layer (which {@code spring_boot_application_should_be_in_root} reports) to the package above that layer.
+ * An application class below packages of its own application, like {@code com.example.services} next to
+ * {@code com.example.controllers}, widens the import to them. Only classes from the class path roots of the application
+ * classes widen it, so an application in {@code com.acme.shop} still narrows the import next to shared
+ * {@code com.acme.*} modules built into other {@code target/classes} directories.
+ */
+final class ApplicationRoot {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ApplicationRoot.class);
+
+    static final String DETECT_PROPERTY = "hexagonal.root.detect";
+    static final String SPRING_BOOT_APPLICATION = "org.springframework.boot.autoconfigure.SpringBootApplication";
+    private static final List<String> LAYERS = List.of("core", "adapters", "infrastructure");
+
+    private static String packageName;
+
+    private ApplicationRoot() {
+    }
+
+    static boolean isDetectionEnabled() {
+        return Boolean.parseBoolean(ArchConfiguration.get().getPropertyOrDefault(DETECT_PROPERTY, "false"));
+    }
+
+    // Detected once per JVM, every suite has to import the same locations to share the import
+    static synchronized String packageName(Class<?> suite) {
+        if (packageName == null) {
+            packageName = isDetectionEnabled() ? detect(suite) : SharedClassImport.ROOT_PACKAGE;
+        }
+        return packageName;
+    }
+
+    private static String detect(Class<?> suite) {
+        List<Path> classFiles = ApplicationClassFiles.find(SharedClassImport.ROOT_PACKAGE, ApplicationClassFiles.importOptionsOf(suite));
+        Set<String> applications = new TreeSet<>();
+        Set<Path> applicationRoots = new HashSet<>();
+        Map<String, Path> classPathRoots = new TreeMap<>();
+        for (Path classFile : classFiles) {
+            ConstantPool constantPool = ConstantPool.read(classFile);
+            Path classPathRoot = classPathRootOf(classFile, constantPool.className());
+            classPathRoots.put(constantPool.className(), classPathRoot);
+            if (constantPool.annotationTypes().contains(SPRING_BOOT_APPLICATION)) {
+                applications.add(constantPool.className());
+                applicationRoots.add(classPathRoot);
+            }
+        }
+        Set<String> classNames = classPathRoots.keySet();
+        if (applications.isEmpty()) {
+            LOG.info("No @SpringBootApplication class found below {}, importing all {} class files",
+                SharedClassImport.ROOT_PACKAGE, classFiles.size());
+            return SharedClassImport.ROOT_PACKAGE;
+        }
+
+        List<String> applicationClassNames = classPathRoots.entrySet().stream()
+            .filter(entry -> applicationRoots.contains(entry.getValue()))
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+        String root = rootOf(applications, applicationClassNames);
+        String prefix = root + ".";
+        long imported = classNames.stream().filter(className -> className.startsWith(prefix)).count();
+        LOG.info("Importing {} (@SpringBootApplication {}) instead of {}: {} of {} class files, {} skipped",
+            root, String.join(", ", applications), SharedClassImport.ROOT_PACKAGE,
+            imported, classNames.size(), classNames.size() - imported);
+        return root;
+    }
+
+    // The package of the applications, widened to every class of their class path roots in the same tree below the root package
+    static String rootOf(Collection<String> applications, Collection<String> applicationClassNames) {
+        String root = null;
+        for (String application : applications) {
+            String applicationPackage = outsideOfLayers(packageOf(application));
+            root = root == null ? applicationPackage : commonPackage(root, applicationPackage);
+        }
+        if (root == null || !isBelow(root, SharedClassImport.ROOT_PACKAGE) || root.equals(SharedClassImport.ROOT_PACKAGE)) {
+            return SharedClassImport.ROOT_PACKAGE;
+        }
+        // e.g. com.example for com.example.services below com
+        int endOfTree = root.indexOf('.', SharedClassImport.ROOT_PACKAGE.length() + 1);
+        String tree = endOfTree < 0 ? root : root.substring(0, endOfTree);
+        for (String className : applicationClassNames) {
+            String packageName = packageOf(className);
+            if (isBelow(packageName, tree) && !isBelow(packageName, root)) {
+                root = commonPackage(root, packageName);
+            }
+        }
+        return root;
+    }
+
+    // e.g. target/classes for target/classes/com/example/Foo.class, a module directory or a jar root
+    static Path classPathRootOf(Path classFile, String className) {
+        Path root = classFile.getParent();
+        for (int i = className.indexOf('.'); i >= 0 && root != null; i = className.indexOf('.', i + 1)) {
+            root = root.getParent();
+        }
+        return root;
+    }
+
+    private static String packageOf(String className) {
+        return className.substring(0, Math.max(className.lastIndexOf('.'), 0));
+    }
+
+    // e.g. com.acme.shop.core.config -> com.acme.shop
+    private static String outsideOfLayers(String packageName) {
+        String[] segments = packageName.split("\\.");
+        StringBuilder result = new StringBuilder();
+        for (String segment : segments) {
+            if (LAYERS.contains(segment)) {
+                break;
+            }
+            result.append(result.length() == 0 ? "" : ".").append(segment);
+        }
+        return result.toString();
+    }
+
+    private static String commonPackage(String first, String second) {
+        String[] firstSegments = first.split("\\.");
+        String[] secondSegments = second.split("\\.");
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < Math.min(firstSegments.length, secondSegments.length); i++) {
+            if (!firstSegments[i].equals(secondSegments[i])) {
+                break;
+            }
+            result.append(i == 0 ? "" : ".").append(firstSegments[i]);
+        }
+        return result.toString();
+    }
+
+    private static boolean isBelow(String packageName, String rootPackage) {
+        return packageName.equals(rootPackage) || packageName.startsWith(rootPackage + ".");
+    }
+}
@@ -0,0 +1,73 @@
+package com.archunit;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ApplicationRootTest {
+
+    // The layout of samples/bad-architecture, whose application class sits below its controllers and repositories
+    private static final List<String> BAD_ARCHITECTURE = List.of(
+        "com.example.controllers.UserController",
+        "com.example.core.user.User",
+        "com.example.core.user.UserService",
+        "com.example.infrastructure.config.BadConfiguration",
+        "com.example.repositories.UserRepository",
+        "com.example.services.BadApplication",
+        "com.example.services.BusinessLogicInInfrastructure");
+
+    @Test
+    void imports_every_class_of_an_application_below_its_own_packages() {
+        assertEquals("com.example",
+            ApplicationRoot.rootOf(Set.of("com.example.services.BadApplication"), BAD_ARCHITECTURE));
+    }
+
+    @Test
+    void skips_the_trees_beside_the_application() {
+        List<String> classNames = new ArrayList<>(BAD_ARCHITECTURE);
+        classNames.add("com.other.generated.Client");
+        classNames.add("com.fasterxml.Module");
+
+        String root = ApplicationRoot.rootOf(Set.of("com.example.services.BadApplication"), classNames);
+
+        assertEquals("com.example", root);
+        assertEquals(BAD_ARCHITECTURE.size(), classNames.stream().filter(name -> name.startsWith(root + ".")).count());
+    }
+
+    @Test
+    void narrows_to_the_application_package_if_nothing_else_is_in_its_tree() {
+        assertEquals("com.acme.shop", ApplicationRoot.rootOf(Set.of("com.acme.shop.ShopApplication"), List.of(
+            "com.acme.shop.ShopApplication", "com.acme.shop.core.Order", "com.other.Tool")));
+    }
+
+    @Test
+    void narrows_to_the_package_above_the_layer_of_a_misplaced_application() {
+        assertEquals("com.acme.shop", ApplicationRoot.rootOf(Set.of("com.acme.shop.core.config.ShopApplication"), List.of(
+            "com.acme.shop.core.config.ShopApplication", "com.acme.shop.adapters.web.OrderController")));
+    }
+
+    @Test
+    void narrows_to_the_common_package_of_several_applications() {
+        assertEquals("com.acme", ApplicationRoot.rootOf(
+            Set.of("com.acme.shop.ShopApplication", "com.acme.billing.BillingApplication"), List.of()));
+    }
+
+    @Test
+    void finds_the_class_path_root_of_a_class_file() {
+        assertEquals(Path.of("/shop/target/classes"), ApplicationRoot.classPathRootOf(
+            Path.of("/shop/target/classes/com/acme/shop/ShopApplication.class"), "com.acme.shop.ShopApplication"));
+        assertEquals(Path.of("/shop/target/classes"), ApplicationRoot.classPathRootOf(
+            Path.of("/shop/target/classes/com/acme/shop/core/Order$Line.class"), "com.acme.shop.core.Order$Line"));
+    }
+
+    @Test
+    void falls_back_to_the_root_package_for_applications_outside_of_it() {
+        assertEquals(SharedClassImport.ROOT_PACKAGE, ApplicationRoot.rootOf(Set.of("org.acme.ShopApplication"), List.of()));
+        assertEquals(SharedClassImport.ROOT_PACKAGE, ApplicationRoot.rootOf(Set.of(), BAD_ARCHITECTURE));
+    }
+}
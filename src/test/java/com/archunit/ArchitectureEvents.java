@@ -0,0 +1,228 @@
+package com.archunit;
+
+import com.tngtech.archunit.core.importer.Location;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Java Flight Recorder events of the suites, to profile them in CI together with the JVM's own GC and allocation
+ * events, e.g. with {@code -XX:StartFlightRecording=filename=target/archunit.jfr} in surefire's {@code argLine}:
+ * <ul>
+ *   <li>{@link ClassImport} from the first step of the class import until the rule it was made for finished, and a
+ *   {@link LocationScan} per import location</li>
+ *   <li>{@link RuleEvaluation} per rule, from the {@link FlightRecorderListener}</li>
+ *   <li>{@link ConditionEvaluation} and {@link IndexBuild} for the custom conditions and per import indexes</li>
+ * </ul>
+ * Without a recording an event is never begun, so the hooks cost an allocation and a check at most; the hook called
+ * per imported class file only reads a field.
+ */
+final class ArchitectureEvents {
+
+    private static final String CATEGORY = "Hexagonal Architecture";
+
+    // The import in progress while recording, its locations and the location being scanned
+    private static volatile ClassImport classImport;
+    private static Collection<Location> locations = new ArrayList<>();
+    private static List<String> locationUris = new ArrayList<>();
+    private static LocationScan locationScan;
+    private static long firstClassFile;
+    private static long lastClassFile;
+
+    private ArchitectureEvents() {
+    }
+
+    @Name("com.archunit.ClassImport")
+    @Label("Class Import")
+    @Category({"ArchUnit", CATEGORY})
+    @Description("Import of the classes analysed by the suites, from the scan of the locations until the rule they were "
+        + "imported for finished")
+    @StackTrace(false)
+    static final class ClassImport extends Event {
+        @Label("Locations")
+        int locations;
+
+        @Label("Class Files")
+        int classFiles;
+
+        @Label("Partial")
+        @Description("Only the class files the import cache found changed or affected")
+        boolean partial;
+
+        @Label("Scan Time")
+        @Description("Walking the locations for class files, before ArchUnit parses all of them and links the class graph")
+        @Timespan
+        long scanTime;
+    }
+
+    @Name("com.archunit.LocationScan")
+    @Label("Location Scan")
+    @Category({"ArchUnit", CATEGORY})
+    @Description("Walk of one import location, from the first to the last class file it adds to the import")
+    @StackTrace(false)
+    static final class LocationScan extends Event {
+        @Label("Location")
+        String location;
+
+        @Label("Class Files")
+        int classFiles;
+    }
+
+    @Name("com.archunit.RuleEvaluation")
+    @Label("Rule Evaluation")
+    @Category({"ArchUnit", CATEGORY})
+    @Description("One @ArchTest rule of a suite, including the import if the rule was the first to need the classes")
+    @StackTrace(false)
+    static final class RuleEvaluation extends Event {
+        @Label("Suite")
+        String suite;
+
+        @Label("Rule")
+        String rule;
+
+        @Label("Passed")
+        boolean passed;
+
+        @Label("Violations")
+        @Description("Violations reported by the failure, -1 if it reported none")
+        int violations;
+
+        @Label("Imported")
+        boolean imported;
+    }
+
+    @Name("com.archunit.ConditionEvaluation")
+    @Label("Condition Evaluation")
+    @Category({"ArchUnit", CATEGORY})
+    @Description("A custom condition or rule of the suites over the classes it checks")
+    @StackTrace(false)
+    static final class ConditionEvaluation extends Event {
+        @Label("Condition")
+        String condition;
+
+        @Label("Classes")
+        int classes;
+
+        @Label("Violations")
+        int violations;
+    }
+
+    @Name("com.archunit.IndexBuild")
+    @Label("Index Build")
+    @Category({"ArchUnit", CATEGORY})
+    @Description("An index built once per import and shared by the rules of the suites")
+    @StackTrace(false)
+    static final class IndexBuild extends Event {
+        @Label("Index")
+        String index;
+
+        @Label("Classes")
+        int classes;
+    }
+
+    // A begun condition event, or null while not recording
+    static ConditionEvaluation conditionStarted(String condition) {
+        ConditionEvaluation event = new ConditionEvaluation();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.condition = condition;
+        event.begin();
+        return event;
+    }
+
+    static void conditionFinished(ConditionEvaluation event, int classes, int violations) {
+        if (event != null) {
+                event.violations = violations;
+            event.commit();
+        }
+    }
+
+    // A begun index event, or null while not recording
+    static IndexBuild indexStarted(String index) {
+        IndexBuild event = new IndexBuild();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.index = index;
+        event.begin();
+        return event;
+    }
+
+    static void indexFinished(IndexBuild event, int classes) {
+        if (event != null) {
+                event.commit();
+        }
+    }
+
+    // The import locations are resolved before every import, including the ones ArchUnit serves from its cache
+    static synchronized void locationsResolved(Collection<Location> resolved) {
+        locations = resolved;
+    }
+
+    static synchronized void importStarted(boolean partial) {
+        ClassImport event = new ClassImport();
+        if (!event.isEnabled()) {
+            return;
+        }
+        locationUris = new ArrayList<>(locations.size());
+        for (Location location : locations) {
+            locationUris.add(location.asURI().toString());
+        }
+        event.partial = partial;
+        event.locations = locations.size();
+        event.begin();
+        locationScan = null;
+        classImport = event;
+    }
+
+    // Called per class file the import options include, location by location
+    static void classFileIncluded(Location classFile) {
+        if (classImport != null) {
+            scanned(classFile.asURI().toString());
+        }
+    }
+
+    private static synchronized void scanned(String classFile) {
+        if (classImport == null) {
+            return;
+        }
+        if (locationScan == null || !classFile.startsWith(locationScan.location)) {
+            if (locationScan != null) {
+                locationScan.commit();
+            } else {
+                firstClassFile = System.nanoTime();
+            }
+            locationScan = new LocationScan();
+            locationScan.location = locationUris.stream().filter(classFile::startsWith).findFirst().orElse(classFile);
+            locationScan.begin();
+        }
+        locationScan.classFiles++;
+        locationScan.end();
+        classImport.classFiles++;
+        lastClassFile = System.nanoTime();
+    }
+
+    // Called when a rule of the suites finished, the first one after the import is the one it was imported for
+    static synchronized void importFinished() {
+        ClassImport event = classImport;
+        if (event == null) {
+            return;
+        }
+        if (locationScan != null) {
+            locationScan.commit();
+            event.scanTime = lastClassFile - firstClassFile;
+        }
+        event.commit();
+        locationScan = null;
+        classImport = null;
+    }
+}
@@ -0,0 +1,310 @@
+package com.archunit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Content hashes of the imported class files together with the suites that passed on exactly these classes.
+ *
+ * Besides its hash every file records the class it declares and the classes it refers to, which makes the snapshot
+ * a dependency graph of the application that is patched file by file instead of being rebuilt. Files whose size and
+ * modification time did not change since the previous snapshot are taken over without being read.
+ *
+ * Stored in a compact binary format: a header with the ArchUnit version and the fingerprint of the rules,
+ * import options and class path, a table of all class names, one record per class file referring to that table,
+ * and the names of the green suites.
+ */
+final class ClassFileSnapshot {
+
+    private static final int MAGIC = 0x48455843;
+    private static final short FORMAT_VERSION = 2;
+    private static final int HASH_LENGTH = 32;
+
+    private final String archUnitVersion;
+    private final String fingerprint;
+    private final Map<String, FileState> files;
+    private final Set<String> greenSuites;
+
+    ClassFileSnapshot(String archUnitVersion, String fingerprint, Map<String, FileState> files, Set<String> greenSuites) {
+        this.archUnitVersion = archUnitVersion;
+        this.fingerprint = fingerprint;
+        this.files = files;
+        this.greenSuites = greenSuites;
+    }
+
+    // Reuses the state of every file the previous snapshot has seen with the same size and modification time
+    static ClassFileSnapshot take(String archUnitVersion, String fingerprint, Collection<Path> classFiles,
+        ClassFileSnapshot previous) {
+        Map<String, FileState> files = new LinkedHashMap<>();
+        for (Path classFile : classFiles) {
+            String path = classFile.toString();
+            files.put(path, FileState.of(classFile, previous != null ? previous.files.get(path) : null));
+        }
+        return new ClassFileSnapshot(archUnitVersion, fingerprint, files, Collections.emptySet());
+    }
+
+    boolean hasSameInputsAs(ClassFileSnapshot other) {
+        return hasSameFingerprintAs(other) && files.equals(other.files);
+    }
+
+    boolean hasSameFingerprintAs(ClassFileSnapshot other) {
+        return hasFingerprint(other.archUnitVersion, other.fingerprint);
+    }
+
+    boolean hasFingerprint(String archUnitVersion, String fingerprint) {
+        return this.archUnitVersion.equals(archUnitVersion) && this.fingerprint.equals(fingerprint);
+    }
+
+    boolean isGreen(String suite) {
+        return greenSuites.contains(suite);
+    }
+
+    Set<String> greenSuites() {
+        return greenSuites;
+    }
+
+    int size() {
+        return files.size();
+    }
+
+    // Packages of all class files, including those an incremental import leaves out
+    Set<String> packageNames() {
+        Set<String> packageNames = new TreeSet<>();
+        files.values().forEach(state -> {
+            int end = state.className.lastIndexOf('.');
+            packageNames.add(end < 0 ? "" : state.className.substring(0, end));
+        });
+        return packageNames;
+    }
+
+    /**
+     * The class files to re-import so that every dependency touching a class changed since the {@code previous}
+     * snapshot is seen again: added and modified classes, the classes they depend on, and all classes depending on
+     * a modified or deleted class. Dependencies between two unchanged classes have already been checked.
+     */
+    Changes changesSince(ClassFileSnapshot previous) {
+        Map<String, String> fileByClass = new HashMap<>();
+        files.forEach((path, state) -> fileByClass.put(state.className, path));
+
+        Set<String> changedClasses = new HashSet<>();
+        Set<String> affected = new TreeSet<>();
+        int modified = 0;
+        int added = 0;
+        for (Map.Entry<String, FileState> entry : files.entrySet()) {
+            FileState before = previous.files.get(entry.getKey());
+            if (entry.getValue().equals(before)) {
+                continue;
+            }
+            if (before == null) {
+                added++;
+            } else {
+                modified++;
+                changedClasses.add(before.className);
+            }
+            changedClasses.add(entry.getValue().className);
+            affected.add(entry.getKey());
+            for (String target : entry.getValue().references) {
+                String targetFile = fileByClass.get(target);
+                if (targetFile != null) {
+                    affected.add(targetFile);
+                }
+            }
+        }
+        int deleted = 0;
+        for (Map.Entry<String, FileState> entry : previous.files.entrySet()) {
+            if (!files.containsKey(entry.getKey())) {
+                deleted++;
+                changedClasses.add(entry.getValue().className);
+            }
+        }
+        if (!changedClasses.isEmpty()) {
+            files.forEach((path, state) -> {
+                for (String target : state.references) {
+                    if (changedClasses.contains(target)) {
+                        affected.add(path);
+                        return;
+                    }
+                }
+            });
+        }
+        List<Path> affectedFiles = new ArrayList<>();
+        affected.forEach(path -> affectedFiles.add(Paths.get(path)));
+        return new Changes(added, modified, deleted, affectedFiles);
+    }
+
+    ClassFileSnapshot withGreenSuites(Set<String> suites) {
+        return new ClassFileSnapshot(archUnitVersion, fingerprint, files, new TreeSet<>(suites));
+    }
+
+    static ClassFileSnapshot read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readShort() != FORMAT_VERSION) {
+                throw new IOException("Unsupported class file snapshot format in " + file);
+            }
+            String archUnitVersion = in.readUTF();
+            String fingerprint = in.readUTF();
+            String[] classNames = new String[in.readInt()];
+            for (int i = 0; i < classNames.length; i++) {
+                classNames[i] = in.readUTF();
+            }
+            int fileCount = in.readInt();
+            Map<String, FileState> files = new LinkedHashMap<>(fileCount * 2);
+            for (int i = 0; i < fileCount; i++) {
+                String path = in.readUTF();
+                long size = in.readLong();
+                long lastModified = in.readLong();
+                byte[] hash = new byte[HASH_LENGTH];
+                in.readFully(hash);
+                String className = classNames[in.readInt()];
+                String[] references = new String[in.readInt()];
+                for (int j = 0; j < references.length; j++) {
+                    references[j] = classNames[in.readInt()];
+                }
+                files.put(path, new FileState(size, lastModified, hash, className, references));
+            }
+            int suiteCount = in.readInt();
+            Set<String> greenSuites = new TreeSet<>();
+            for (int i = 0; i < suiteCount; i++) {
+                greenSuites.add(in.readUTF());
+            }
+            return new ClassFileSnapshot(archUnitVersion, fingerprint, files, greenSuites);
+        }
+    }
+
+    void write(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temporary = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeUTF(archUnitVersion);
+            out.writeUTF(fingerprint);
+            Map<String, Integer> classIds = new LinkedHashMap<>();
+            for (FileState state : files.values()) {
+                classIds.putIfAbsent(state.className, classIds.size());
+                for (String reference : state.references) {
+                    classIds.putIfAbsent(reference, classIds.size());
+                }
+            }
+            out.writeInt(classIds.size());
+            for (String className : classIds.keySet()) {
+                out.writeUTF(className);
+            }
+            out.writeInt(files.size());
+            for (Map.Entry<String, FileState> entry : files.entrySet()) {
+                FileState state = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeLong(state.size);
+                out.writeLong(state.lastModified);
+                out.write(state.hash);
+                out.writeInt(classIds.get(state.className));
+                out.writeInt(state.references.length);
+                for (String reference : state.references) {
+                    out.writeInt(classIds.get(reference));
+                }
+            }
+            out.writeInt(greenSuites.size());
+            for (String suite : greenSuites) {
+                out.writeUTF(suite);
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static final class Changes {
+        final int added;
+        final int modified;
+        final int deleted;
+        final List<Path> affectedFiles;
+
+        Changes(int added, int modified, int deleted, List<Path> affectedFiles) {
+            this.added = added;
+            this.modified = modified;
+            this.deleted = deleted;
+            this.affectedFiles = affectedFiles;
+        }
+
+        boolean isEmpty() {
+            return added == 0 && modified == 0 && deleted == 0;
+        }
+    }
+
+    static final class FileState {
+        final long size;
+        final long lastModified;
+        final byte[] hash;
+        final String className;
+        final String[] references;
+
+        FileState(long size, long lastModified, byte[] hash, String className, String[] references) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.className = className;
+            this.references = references;
+        }
+
+        static FileState of(Path classFile, FileState previous) {
+            try {
+                long size = Files.size(classFile);
+                long lastModified = Files.getLastModifiedTime(classFile).toMillis();
+                if (previous != null && previous.size == size && previous.lastModified == lastModified) {
+                    return previous;
+                }
+                byte[] content = Files.readAllBytes(classFile);
+                ConstantPool constantPool = ConstantPool.parse(content);
+                return new FileState(content.length, lastModified, newDigest().digest(content),
+                    constantPool.className(), constantPool.referencedClassNames().toArray(new String[0]));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read class file " + classFile, e);
+            }
+        }
+
+        // Only the content counts, a rebuild that touches the file without changing it keeps the cache valid
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FileState)) {
+                return false;
+            }
+            FileState other = (FileState) obj;
+            return size == other.size && Arrays.equals(hash, other.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(hash);
+        }
+    }
+}
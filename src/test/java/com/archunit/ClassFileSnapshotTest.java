@@ -0,0 +1,189 @@
+package com.archunit;
+
+import com.archunit.ClassFileSnapshot.FileState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassFileSnapshotTest {
+
+    private static final String ORDER = "/classes/shop/core/Order.class";
+    private static final String CUSTOMER = "/classes/shop/core/Customer.class";
+    private static final String INVOICE = "/classes/shop/core/Invoice.class";
+    private static final String PAYMENT = "/classes/shop/core/Payment.class";
+    private static final String REPORT = "/classes/shop/core/Report.class";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reads_what_it_wrote() throws IOException {
+        ClassFileSnapshot snapshot = snapshot(Map.of(
+            ORDER, state(120, "shop.core.Order", "shop.core.Customer", "java.util.List"),
+            CUSTOMER, state(80, "shop.core.Customer")), Set.of("shop.CoreTest"));
+        Path file = directory.resolve("cache").resolve("import-snapshot.bin");
+
+        snapshot.write(file);
+        ClassFileSnapshot read = ClassFileSnapshot.read(file);
+
+        assertTrue(read.hasFingerprint("1.2.1", "fingerprint"));
+        assertFalse(read.hasFingerprint("1.2.2", "fingerprint"));
+        assertTrue(read.hasSameInputsAs(snapshot));
+        assertEquals(2, read.size());
+        assertEquals(Set.of("shop.CoreTest"), read.greenSuites());
+        assertTrue(read.changesSince(snapshot).isEmpty());
+    }
+
+    @Test
+    void reads_the_classes_and_references_it_wrote() throws IOException {
+        Path file = directory.resolve("import-snapshot.bin");
+        snapshot(Map.of(
+            ORDER, state(120, "shop.core.Order", "shop.core.Customer"),
+            CUSTOMER, state(80, "shop.core.Customer")), Set.of()).write(file);
+
+        ClassFileSnapshot read = ClassFileSnapshot.read(file);
+        ClassFileSnapshot.Changes changes = snapshot(Map.of(
+            ORDER, state(120, "shop.core.Order", "shop.core.Customer"),
+            CUSTOMER, state(96, "shop.core.Customer")), Set.of()).changesSince(read);
+
+        // Order is only affected through the class name and references read back
+        assertEquals(1, changes.modified);
+        assertEquals(List.of(Path.of(CUSTOMER), Path.of(ORDER)), changes.affectedFiles);
+    }
+
+    @Test
+    void re_imports_a_modified_class_with_the_classes_depending_on_it() {
+        ClassFileSnapshot.Changes changes = after(Map.of(CUSTOMER, state(96, "shop.core.Customer"))).changesSince(before());
+
+        assertEquals(1, changes.modified);
+        assertEquals(0, changes.added);
+        assertEquals(List.of(Path.of(CUSTOMER), Path.of(ORDER)), changes.affectedFiles);
+    }
+
+    @Test
+    void re_imports_an_added_class_with_the_classes_it_depends_on() {
+        ClassFileSnapshot.Changes changes = after(Map.of(PAYMENT, state(64, "shop.core.Payment", "shop.core.Order")))
+            .changesSince(before());
+
+        assertEquals(1, changes.added);
+        assertEquals(List.of(Path.of(ORDER), Path.of(PAYMENT)), changes.affectedFiles);
+    }
+
+    @Test
+    void re_imports_the_classes_depending_on_a_deleted_class() {
+        Map<String, FileState> files = new LinkedHashMap<>(files());
+        files.remove(CUSTOMER);
+
+        ClassFileSnapshot.Changes changes = snapshot(files, Set.of()).changesSince(before());
+
+        assertEquals(1, changes.deleted);
+        assertEquals(List.of(Path.of(ORDER)), changes.affectedFiles);
+    }
+
+    @Test
+    void re_imports_nothing_if_only_modification_times_changed() {
+        Map<String, FileState> touched = new LinkedHashMap<>();
+        files().forEach((path, state) -> touched.put(path,
+            new FileState(state.size, state.lastModified + 1000, state.hash, state.className, state.references)));
+
+        assertTrue(snapshot(touched, Set.of()).changesSince(before()).isEmpty());
+    }
+
+    @Test
+    void rejects_other_formats() throws IOException {
+        Path file = directory.resolve("import-snapshot.bin");
+        Files.write(file, "not a snapshot".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IOException.class, () -> ClassFileSnapshot.read(file));
+    }
+
+    @Test
+    void reads_a_class_file_again_only_if_its_size_or_modification_time_changed() throws IOException {
+        Path classFile = directory.resolve("Object.class");
+        byte[] content = classFileOf(Object.class);
+        Files.write(classFile, content);
+        ClassFileSnapshot first = ClassFileSnapshot.take("1.2.1", "fingerprint", List.of(classFile), null);
+        FileTime lastModified = Files.getLastModifiedTime(classFile);
+
+        // Same size and modification time, taken over without being read
+        Files.write(classFile, new String(content, StandardCharsets.ISO_8859_1)
+            .replace("toString", "toStrinG").getBytes(StandardCharsets.ISO_8859_1));
+        Files.setLastModifiedTime(classFile, lastModified);
+        ClassFileSnapshot unchanged = ClassFileSnapshot.take("1.2.1", "fingerprint", List.of(classFile), first);
+        Files.setLastModifiedTime(classFile, FileTime.fromMillis(lastModified.toMillis() + 1000));
+        ClassFileSnapshot touched = ClassFileSnapshot.take("1.2.1", "fingerprint", List.of(classFile), first);
+
+        assertTrue(unchanged.hasSameInputsAs(first));
+        assertFalse(touched.hasSameInputsAs(first));
+        assertEquals(1, touched.changesSince(first).modified);
+    }
+
+    @Test
+    void keeps_the_layers_of_the_classes_not_re_imported() {
+        String request = "/classes/shop/adapters/api/CreateOrderRequest.class";
+        String foo = "/classes/shop/Foo.class";
+        ClassFileSnapshot before = after(Map.of(request, state(72, "shop.adapters.api.CreateOrderRequest")));
+        ClassFileSnapshot after = after(Map.of(
+            request, state(72, "shop.adapters.api.CreateOrderRequest"),
+            foo, state(56, "shop.Foo", "shop.adapters.api.CreateOrderRequest")));
+
+        ClassFileSnapshot.Changes changes = after.changesSince(before);
+
+        // The re-imported classes alone look like an application without a core, so the layers were not checked
+        assertEquals(List.of(Path.of(foo), Path.of(request)), changes.affectedFiles);
+        assertEquals(Set.of("shop", "shop.adapters.api", "shop.core"), after.packageNames());
+        assertTrue(Layer.presentInPackages(after.packageNames()).containsAll(Set.of(Layer.CORE, Layer.ADAPTERS, Layer.ROOT)));
+    }
+
+    // Invoice depends on Order, Order on Customer, Report on nothing
+    private static Map<String, FileState> files() {
+        Map<String, FileState> files = new LinkedHashMap<>();
+        files.put(ORDER, state(120, "shop.core.Order", "shop.core.Customer", "java.util.List"));
+        files.put(CUSTOMER, state(80, "shop.core.Customer"));
+        files.put(INVOICE, state(100, "shop.core.Invoice", "shop.core.Order"));
+        files.put(REPORT, state(40, "shop.core.Report"));
+        return files;
+    }
+
+    private static ClassFileSnapshot before() {
+        return snapshot(files(), Set.of());
+    }
+
+    private static ClassFileSnapshot after(Map<String, FileState> changed) {
+        Map<String, FileState> files = new LinkedHashMap<>(files());
+        files.putAll(changed);
+        return snapshot(files, Set.of());
+    }
+
+    static ClassFileSnapshot snapshot(Map<String, FileState> files, Set<String> greenSuites) {
+        return new ClassFileSnapshot("1.2.1", "fingerprint", new LinkedHashMap<>(files), greenSuites);
+    }
+
+    // A file whose content is identified by its class name and size
+    static FileState state(long size, String className, String... references) {
+        byte[] hash = ClassFileSnapshot.newDigest().digest((className + size).getBytes(StandardCharsets.UTF_8));
+        return new FileState(size, 1_000_000L + size, hash, className, references);
+    }
+
+    static byte[] classFileOf(Class<?> type) throws IOException {
+        String name = type.getName();
+        try (InputStream in = type.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.archunit;
+
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.core.domain.JavaAnnotation;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.EvaluationResult;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static com.tngtech.archunit.base.DescribedPredicate.describe;
+
+/**
+ * Inverted indexes over the imported classes, built in one pass per import: from annotation type name to the classes
+ * directly annotated with it, and from simple name suffix to the classes whose simple name ends with it. Rules
+ * selecting by annotation or name suffix are evaluated on their {@link Candidates} only, filtered from the import
+ * once per import by a set lookup, so their conditions take time proportional to the matching classes instead of the
+ * whole code base.
+ *
+ * Suffixes are indexed for all {@link #simpleNameEndingWith} candidates created before the import, in a trie of the
+ * reversed suffixes: every simple name is walked backwards once, no matter how many suffixes the suites use.
+ *
+ * The rules themselves stay unchanged and still decide which of the candidates they select, with the same
+ * descriptions and messages. Their selection must imply the candidates though: a class the rule would select but the
+ * candidates miss is not checked. Disabled with {@code hexagonal.index.enabled=false}.
+ */
+final class ClassIndex {
+
+    static final String ENABLED_PROPERTY = "hexagonal.index.enabled";
+
+    private static final String ANNOTATED = "@";
+    private static final String SUFFIX = "*";
+
+    private static final Set<String> SUFFIXES = ConcurrentHashMap.newKeySet();
+
+    private static Reference<JavaClasses> indexed = new WeakReference<>(null);
+    private static ClassIndex index;
+
+    private final JavaClasses classes;
+    private final Map<String, Set<JavaClass>> annotated = new HashMap<>();
+    private final Map<String, Set<JavaClass>> bySuffix = new ConcurrentHashMap<>();
+    private final Map<Set<String>, JavaClasses> candidateClasses = new ConcurrentHashMap<>();
+
+    private ClassIndex(JavaClasses classes) {
+        this.classes = classes;
+        SuffixTrie suffixes = new SuffixTrie(SUFFIXES);
+        suffixes.forEach(suffix -> bySuffix.put(suffix, new LinkedHashSet<>()));
+        for (JavaClass javaClass : classes) {
+            suffixes.match(javaClass.getSimpleName(), suffix -> bySuffix.get(suffix).add(javaClass));
+            for (JavaAnnotation<JavaClass> annotation : javaClass.getAnnotations()) {
+                add(annotated, annotation.getRawType().getName(), javaClass);
+            }
+        }
+    }
+
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(ArchConfiguration.get().getPropertyOrDefault(ENABLED_PROPERTY, "true"));
+    }
+
+    // One index per import, shared by all suites evaluating the same classes
+    static synchronized ClassIndex of(JavaClasses classes) {
+        if (indexed.get() != classes) {
+            ArchitectureEvents.IndexBuild event = ArchitectureEvents.indexStarted("ClassIndex");
+            index = new ClassIndex(classes);
+            ArchitectureEvents.indexFinished(event, classes.size());
+            indexed = new WeakReference<>(classes);
+        }
+        return index;
+    }
+
+    // Evaluates the rule on the candidates only, its selection must not reach beyond them
+    static ArchRule among(Candidates candidates, ArchRule rule) {
+        return isEnabled() ? new IndexedRule(rule, candidates) : rule;
+    }
+
+    // Classes directly annotated with any of the types, like areAnnotatedWith(..)
+    static Candidates annotatedWith(String... annotationTypeNames) {
+        return new Candidates(prefixed(ANNOTATED, annotationTypeNames));
+    }
+
+    // Classes whose simple name ends with any of the suffixes, like haveSimpleNameEndingWith(..)
+    static Candidates simpleNameEndingWith(String... suffixes) {
+        SUFFIXES.addAll(Arrays.asList(suffixes));
+        return new Candidates(prefixed(SUFFIX, suffixes));
+    }
+
+    private JavaClasses classesOf(Candidates candidates) {
+        return candidateClasses.computeIfAbsent(candidates.keys, keys -> {
+            Set<JavaClass> matches = new LinkedHashSet<>();
+            for (String key : keys) {
+                matches.addAll(lookup(key));
+            }
+            return classes.that(describe("candidates", matches::contains));
+        });
+    }
+
+    private Set<JavaClass> lookup(String key) {
+        if (key.startsWith(SUFFIX)) {
+            // Suffixes first used after the import was indexed cost one scan
+            return bySuffix.computeIfAbsent(key.substring(SUFFIX.length()), suffix -> classes.stream()
+                .filter(javaClass -> javaClass.getSimpleName().endsWith(suffix))
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        }
+        return annotated.getOrDefault(key.substring(ANNOTATED.length()), Collections.emptySet());
+    }
+
+    private static void add(Map<String, Set<JavaClass>> index, String key, JavaClass javaClass) {
+        index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(javaClass);
+    }
+
+    private static Set<String> prefixed(String prefix, String[] names) {
+        Set<String> keys = new TreeSet<>();
+        Arrays.stream(names).map(name -> prefix + name).forEach(keys::add);
+        return keys;
+    }
+
+    /**
+     * Union of index entries a rule selects from, as keys like {@code @jakarta.persistence.Entity} for annotated
+     * classes and {@code *Repository} for name suffixes.
+     */
+    static final class Candidates {
+        private final Set<String> keys;
+
+        private Candidates(Set<String> keys) {
+            this.keys = keys;
+        }
+
+        Candidates or(Candidates candidates) {
+            Set<String> union = new TreeSet<>(keys);
+            union.addAll(candidates.keys);
+            return new Candidates(union);
+        }
+    }
+
+    // Reversed suffixes, one character per level, marking the nodes where a suffix ends
+    private static final class SuffixTrie {
+        private final Map<Character, SuffixTrie> children = new HashMap<>();
+        private String suffix;
+
+        SuffixTrie(Collection<String> suffixes) {
+            for (String suffix : suffixes) {
+                SuffixTrie node = this;
+                for (int i = suffix.length() - 1; i >= 0; i--) {
+                    node = node.children.computeIfAbsent(suffix.charAt(i), c -> new SuffixTrie(Collections.emptySet()));
+                }
+                node.suffix = suffix;
+            }
+        }
+
+        void match(String name, Consumer<String> matched) {
+            SuffixTrie node = this;
+            if (node.suffix != null) {
+                matched.accept(node.suffix);
+            }
+            for (int i = name.length() - 1; i >= 0 && node != null; i--) {
+                node = node.children.get(name.charAt(i));
+                if (node != null && node.suffix != null) {
+                    matched.accept(node.suffix);
+                }
+            }
+        }
+
+        void forEach(Consumer<String> action) {
+            if (suffix != null) {
+                action.accept(suffix);
+            }
+            children.values().forEach(child -> child.forEach(action));
+        }
+    }
+
+    private static final class IndexedRule implements NarrowingRule {
+        private final ArchRule rule;
+        private final Candidates candidates;
+
+        IndexedRule(ArchRule rule, Candidates candidates) {
+            this.rule = rule;
+            this.candidates = candidates;
+        }
+
+        @Override
+        public void check(JavaClasses classes) {
+            Assertions.check(this, classes);
+        }
+
+        @Override
+        public EvaluationResult evaluate(JavaClasses classes) {
+            return rule.evaluate(narrow(classes));
+        }
+
+        @Override
+        public JavaClasses narrow(JavaClasses classes) {
+            return of(classes).classesOf(candidates);
+        }
+
+        @Override
+        public ArchRule decorated() {
+            return rule;
+        }
+
+        @Override
+        public ArchRule because(String reason) {
+            return new IndexedRule(rule.because(reason), candidates);
+        }
+
+        @Override
+        public ArchRule allowEmptyShould(boolean allowEmptyShould) {
+            return new IndexedRule(rule.allowEmptyShould(allowEmptyShould), candidates);
+        }
+
+        @Override
+        public ArchRule as(String newDescription) {
+            return new IndexedRule(rule.as(newDescription), candidates);
+        }
+
+        @Override
+        public String getDescription() {
+            return rule.getDescription();
+        }
+
+        @Override
+        public String toString() {
+            return rule.toString();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.archunit;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Class dependency graph read from the constant pools of the class files, for code bases whose ArchUnit import does
+ * not fit a reasonable heap. Classes are dense int ids, package names are interned to int ids, and the dependencies
+ * of all classes share one int array, so a dependency costs four bytes instead of a {@code Dependency} object with its
+ * origin, target and source code location.
+ *
+ * The classes read come first ({@code 0 <= id < classCount()}), followed by the classes they only refer to. Rules
+ * select packages as {@link BitSet}s over the package ids and then test one bit per dependency. The graph knows which
+ * class refers to which, but not how, so violations name the two classes without member or source location.
+ */
+final class CompactClassGraph {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int classCount;
+    private final String[] packageNames;
+    private final int[] packageOf;
+    private final String[] simpleNames;
+    private final int[] dependencyOffsets;
+    private final int[] dependencies;
+
+    private CompactClassGraph(int classCount, String[] packageNames, int[] packageOf, String[] simpleNames,
+                              int[] dependencyOffsets, int[] dependencies) {
+        this.classCount = classCount;
+        this.packageNames = packageNames;
+        this.packageOf = packageOf;
+        this.simpleNames = simpleNames;
+        this.dependencyOffsets = dependencyOffsets;
+        this.dependencies = dependencies;
+    }
+
+    static CompactClassGraph read(List<Path> classFiles) {
+        // Compacted one class file at a time, so the constant pools of all class files are never held at once
+        Builder builder = new Builder();
+        for (Path classFile : classFiles) {
+            builder.add(ConstantPool.read(classFile));
+        }
+        return builder.build();
+    }
+
+    // Classes read from class files, as opposed to the classes they only refer to
+    int classCount() {
+        return classCount;
+    }
+
+    int size() {
+        return packageOf.length;
+    }
+
+    int dependencyCount() {
+        return dependencies.length;
+    }
+
+    String className(int id) {
+        String packageName = packageNames[packageOf[id]];
+        return packageName.isEmpty() ? simpleNames[id] : packageName + "." + simpleNames[id];
+    }
+
+    String packageName(int id) {
+        return packageNames[packageOf[id]];
+    }
+
+    int packageOf(int id) {
+        return packageOf[id];
+    }
+
+    int packageCount() {
+        return packageNames.length;
+    }
+
+    // The name of a package id, where packageName(id) takes a class id
+    String nameOfPackage(int packageId) {
+        return packageNames[packageId];
+    }
+
+    // Package ids of all packages with a matching name
+    BitSet packages(Predicate<String> packageNames) {
+        BitSet packages = new BitSet(this.packageNames.length);
+        for (int packageId = 0; packageId < this.packageNames.length; packageId++) {
+            if (packageNames.test(this.packageNames[packageId])) {
+                packages.set(packageId);
+            }
+        }
+        return packages;
+    }
+
+    boolean isIn(int id, BitSet packages) {
+        return packages.get(packageOf[id]);
+    }
+
+    // The dependencies of a class are dependency(i) for firstDependency(id) <= i < endOfDependencies(id)
+    int firstDependency(int id) {
+        return dependencyOffsets[id];
+    }
+
+    int endOfDependencies(int id) {
+        return dependencyOffsets[id + 1];
+    }
+
+    int dependency(int index) {
+        return dependencies[index];
+    }
+
+    // Numbers classes in order of appearance and moves the classes read to the front once all are known
+    private static final class Builder {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final Map<String, Integer> packageIds = new HashMap<>();
+        private final List<String> packageNames = new ArrayList<>();
+        private final List<String> simpleNames = new ArrayList<>();
+        private final BitSet read = new BitSet();
+        private int classCount;
+        private int[] packageOf = new int[INITIAL_CAPACITY];
+        private int[] readIds = new int[INITIAL_CAPACITY];
+        private int[] dependencyOffsets = new int[INITIAL_CAPACITY + 1];
+        private int[] dependencies = new int[INITIAL_CAPACITY * 8];
+        private int dependencyCount;
+
+        void add(ConstantPool constantPool) {
+            int id = idOf(constantPool.className());
+            if (read.get(id)) {
+                // The same class in two class path roots, the first one wins like on the class path
+                return;
+            }
+            read.set(id);
+            int row = classCount++;
+            readIds = ensureCapacity(readIds, row + 1);
+            readIds[row] = id;
+            for (String target : constantPool.referencedClassNames()) {
+                dependencies = ensureCapacity(dependencies, dependencyCount + 1);
+                dependencies[dependencyCount++] = idOf(target);
+            }
+            dependencyOffsets = ensureCapacity(dependencyOffsets, row + 2);
+            dependencyOffsets[row + 1] = dependencyCount;
+        }
+
+        CompactClassGraph build() {
+            int size = ids.size();
+            int[] newIds = new int[size];
+            for (int row = 0; row < classCount; row++) {
+                newIds[readIds[row]] = row;
+            }
+            int next = classCount;
+            for (int id = 0; id < size; id++) {
+                if (!read.get(id)) {
+                    newIds[id] = next++;
+                }
+            }
+            int[] newPackageOf = new int[size];
+            String[] newSimpleNames = new String[size];
+            for (int id = 0; id < size; id++) {
+                newPackageOf[newIds[id]] = packageOf[id];
+                newSimpleNames[newIds[id]] = simpleNames.get(id);
+            }
+            int[] newDependencies = new int[dependencyCount];
+            for (int i = 0; i < dependencyCount; i++) {
+                newDependencies[i] = newIds[dependencies[i]];
+            }
+            return new CompactClassGraph(classCount, packageNames.toArray(new String[0]), newPackageOf, newSimpleNames,
+                Arrays.copyOf(dependencyOffsets, classCount + 1), newDependencies);
+        }
+
+        private int idOf(String className) {
+            Integer id = ids.get(className);
+            if (id == null) {
+                id = ids.size();
+                int lastDot = className.lastIndexOf('.');
+                String packageName = lastDot < 0 ? "" : className.substring(0, lastDot);
+                packageOf = ensureCapacity(packageOf, id + 1);
+                packageOf[id] = packageIds.computeIfAbsent(packageName, name -> {
+                    packageNames.add(name);
+                    return packageNames.size() - 1;
+                });
+                simpleNames.add(className.substring(lastDot + 1));
+                ids.put(className, id);
+            }
+            return id;
+        }
+
+        private static int[] ensureCapacity(int[] array, int required) {
+            return required <= array.length ? array : Arrays.copyOf(array, Math.max(required, array.length * 2));
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.archunit;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Minimal reader of the constant pool of a class file: the name of the class, every class it refers to and the
+ * annotations of the class itself.
+ *
+ * References are collected from class entries and from the entries used as type descriptors or generic signatures:
+ * of fields and methods, of the members referred to, of method types and of annotations and their values. Other
+ * strings, like names and literals, are never taken for types. The result is a superset of the dependencies ArchUnit
+ * resolves. Code attributes are skipped, whatever the code refers to is in the constant pool already.
+ */
+final class ConstantPool {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private final String className;
+    private final Set<String> referencedClassNames;
+    private final Set<String> annotationTypes;
+
+    private ConstantPool(String className, Set<String> referencedClassNames, Set<String> annotationTypes) {
+        this.className = className;
+        this.referencedClassNames = referencedClassNames;
+        this.annotationTypes = annotationTypes;
+    }
+
+    String className() {
+        return className;
+    }
+
+    Set<String> referencedClassNames() {
+        return referencedClassNames;
+    }
+
+    Set<String> annotationTypes() {
+        return annotationTypes;
+    }
+
+    String packageName() {
+        int lastDot = className.lastIndexOf('.');
+        return lastDot < 0 ? "" : className.substring(0, lastDot);
+    }
+
+    static ConstantPool read(Path classFile) {
+        try {
+            return parse(Files.readAllBytes(classFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read class file " + classFile, e);
+        }
+    }
+
+    static ConstantPool parse(byte[] classFile) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile));
+            if (in.readInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a class file");
+            }
+            in.readUnsignedShort();
+            in.readUnsignedShort();
+            int count = in.readUnsignedShort();
+            String[] utf8 = new String[count];
+            int[] classEntries = new int[count];
+            // The entries used as descriptors or signatures, the only ones parsed for types
+            BitSet descriptors = new BitSet(count);
+            for (int i = 1; i < count; i++) {
+                int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 1:
+                        utf8[i] = in.readUTF();
+                        break;
+                    case 7:
+                        classEntries[i] = in.readUnsignedShort();
+                        break;
+                    case 12:
+                        // NameAndType of a field or method referred to
+                        in.skipBytes(2);
+                        descriptors.set(in.readUnsignedShort());
+                        break;
+                    case 16:
+                        // MethodType
+                        descriptors.set(in.readUnsignedShort());
+                        break;
+                    case 8:
+                    case 19:
+                    case 20:
+                        in.skipBytes(2);
+                        break;
+                    case 15:
+                        in.skipBytes(3);
+                        break;
+                    case 3:
+                    case 4:
+                    case 9:
+                    case 10:
+                    case 11:
+                    case 17:
+                    case 18:
+                        in.skipBytes(4);
+                        break;
+                    case 5:
+                    case 6:
+                        // Longs and doubles take up two entries
+                        in.skipBytes(8);
+                        i++;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown constant pool tag " + tag);
+                }
+            }
+            in.readUnsignedShort();
+            String className = toClassName(utf8[classEntries[in.readUnsignedShort()]]);
+
+            in.skipBytes(2);
+            in.skipBytes(2 * in.readUnsignedShort());
+            readMembers(in, utf8, descriptors);
+            readMembers(in, utf8, descriptors);
+            Set<String> annotationTypes = new TreeSet<>();
+            readAttributes(in, utf8, descriptors, annotationTypes);
+
+            Set<String> references = new TreeSet<>();
+            for (int i = 1; i < count; i++) {
+                if (classEntries[i] != 0) {
+                    addClassEntry(utf8[classEntries[i]], references);
+                }
+            }
+            for (int i = descriptors.nextSetBit(0); i >= 0; i = descriptors.nextSetBit(i + 1)) {
+                new Signature(utf8[i], references).parse();
+            }
+            references.remove(className);
+            return new ConstantPool(className, references, annotationTypes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Truncated class file", e);
+        }
+    }
+
+    // Fields and methods share the same layout
+    private static void readMembers(DataInputStream in, String[] utf8, BitSet descriptors) throws IOException {
+        int members = in.readUnsignedShort();
+        for (int i = 0; i < members; i++) {
+            in.skipBytes(4);
+            descriptors.set(in.readUnsignedShort());
+            readAttributes(in, utf8, descriptors, null);
+        }
+    }
+
+    // Marks the signatures and annotation types, collecting the annotations of the class
+    private static void readAttributes(DataInputStream in, String[] utf8, BitSet descriptors, Set<String> annotationTypes)
+        throws IOException {
+        int attributes = in.readUnsignedShort();
+        for (int i = 0; i < attributes; i++) {
+            String name = utf8[in.readUnsignedShort()];
+            int length = in.readInt();
+            switch (name) {
+                case "Signature":
+                    descriptors.set(in.readUnsignedShort());
+                    break;
+                case "RuntimeVisibleAnnotations":
+                case "RuntimeInvisibleAnnotations":
+                    readAnnotations(in, utf8, descriptors, annotationTypes);
+                    break;
+                case "RuntimeVisibleParameterAnnotations":
+                case "RuntimeInvisibleParameterAnnotations":
+                    int parameters = in.readUnsignedByte();
+                    for (int j = 0; j < parameters; j++) {
+                        readAnnotations(in, utf8, descriptors, null);
+                    }
+                    break;
+                case "AnnotationDefault":
+                    readElementValue(in, utf8, descriptors);
+                    break;
+                default:
+                    in.skipBytes(length);
+            }
+        }
+    }
+
+    private static void readAnnotations(DataInputStream in, String[] utf8, BitSet descriptors, Set<String> annotationTypes)
+        throws IOException {
+        int annotations = in.readUnsignedShort();
+        for (int i = 0; i < annotations; i++) {
+            int type = readAnnotation(in, utf8, descriptors);
+            if (annotationTypes != null) {
+                annotationTypes.add(toClassName(descriptorClass(utf8[type])));
+            }
+        }
+    }
+
+    private static int readAnnotation(DataInputStream in, String[] utf8, BitSet descriptors) throws IOException {
+        int type = in.readUnsignedShort();
+        descriptors.set(type);
+        int pairs = in.readUnsignedShort();
+        for (int i = 0; i < pairs; i++) {
+            in.skipBytes(2);
+            readElementValue(in, utf8, descriptors);
+        }
+        return type;
+    }
+
+    private static void readElementValue(DataInputStream in, String[] utf8, BitSet descriptors) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'e':
+                // The enum type, then the name of the constant
+                descriptors.set(in.readUnsignedShort());
+                in.skipBytes(2);
+                break;
+            case 'c':
+                // A return descriptor, e.g. Ljava/lang/String; or V
+                descriptors.set(in.readUnsignedShort());
+                break;
+            case '@':
+                readAnnotation(in, utf8, descriptors);
+                break;
+            case '[':
+                int values = in.readUnsignedShort();
+                for (int i = 0; i < values; i++) {
+                    readElementValue(in, utf8, descriptors);
+                }
+                break;
+            default:
+                // Constants, an index into the constant pool
+                in.skipBytes(2);
+        }
+    }
+
+    private static String descriptorClass(String descriptor) {
+        return descriptor.substring(1, descriptor.length() - 1);
+    }
+
+    // Array classes are stored as descriptors, e.g. [Lcom/acme/Order;
+    private static void addClassEntry(String name, Set<String> references) {
+        if (name.startsWith("[")) {
+            new Signature(name, references).parse();
+        } else {
+            references.add(toClassName(name));
+        }
+    }
+
+    private static String toClassName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+
+    /**
+     * The class types of a descriptor or a generic signature of a class, field or method, following the grammar of
+     * JVMS 4.7.9.1: type variables like {@code TLIST;} and the names of type parameters are no class types. Nested
+     * classes in a parameterized type, e.g. {@code Lcom/acme/Outer<TT;>.Inner;}, refer to the outer class too.
+     */
+    private static final class Signature {
+        private final String value;
+        private final Set<String> references;
+        private int position;
+
+        Signature(String value, Set<String> references) {
+            this.value = value;
+            this.references = references;
+        }
+
+        void parse() {
+            if (peek() == '<') {
+                typeParameters();
+            }
+            if (peek() == '(') {
+                position++;
+                while (peek() != ')') {
+                    type();
+                }
+                position++;
+            }
+            // The superclass and interfaces of a class, the type of a field, or the return and thrown types of a method
+            while (position < value.length()) {
+                if (peek() == '^') {
+                    position++;
+                }
+                type();
+            }
+        }
+
+        // <T:Ljava/lang/Object;U::Ljava/lang/Comparable<TU;>;>, a class bound may be missing
+        private void typeParameters() {
+            position++;
+            while (peek() != '>') {
+                position = value.indexOf(':', position);
+                while (peek() == ':') {
+                    position++;
+                    if (isTypeStart(peek())) {
+                        type();
+                    }
+                }
+            }
+            position++;
+        }
+
+        private void type() {
+            char c = value.charAt(position);
+            switch (c) {
+                case 'L':
+                    classType();
+                    break;
+                case 'T':
+                    position = value.indexOf(';', position) + 1;
+                    break;
+                case '[':
+                    position++;
+                    type();
+                    break;
+                default:
+                    // A primitive type or void
+                    position++;
+            }
+        }
+
+        private void classType() {
+            position++;
+            String name = name();
+            references.add(toClassName(name));
+            while (true) {
+                char c = value.charAt(position);
+                if (c == '<') {
+                    typeArguments();
+                } else if (c == '.') {
+                    position++;
+                    name = name + '$' + name();
+                    references.add(toClassName(name));
+                } else {
+                    position++;
+                    return;
+                }
+            }
+        }
+
+        private void typeArguments() {
+            position++;
+            while (peek() != '>') {
+                char c = peek();
+                if (c == '*') {
+                    position++;
+                    continue;
+                }
+                if (c == '+' || c == '-') {
+                    position++;
+                }
+                type();
+            }
+            position++;
+        }
+
+        private String name() {
+            int start = position;
+            while (position < value.length() && value.charAt(position) != ';' && value.charAt(position) != '<'
+                && value.charAt(position) != '.') {
+                position++;
+            }
+            return value.substring(start, position);
+        }
+
+        private char peek() {
+            return position < value.length() ? value.charAt(position) : 0;
+        }
+
+        private static boolean isTypeStart(char c) {
+            return c == 'L' || c == 'T' || c == '[';
+        }
+    }
+}
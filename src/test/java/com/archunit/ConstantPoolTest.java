@@ -0,0 +1,96 @@
+package com.archunit;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.archunit.ClassFileSnapshotTest.classFileOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConstantPoolTest {
+
+    @Test
+    void takes_no_literals_or_names_for_types() throws IOException {
+        Set<String> references = ConstantPool.parse(classFileOf(Literals.class)).referencedClassNames();
+
+        assertFalse(references.contains("com.acme.Ghost"), references::toString);
+        assertFalse(references.contains("org.acme.Other"), references::toString);
+        assertFalse(references.contains("ist of orders"), references::toString);
+        assertTrue(references.contains("java.lang.String"), references::toString);
+    }
+
+    @Test
+    void takes_no_type_variables_for_types() throws IOException {
+        Set<String> references = ConstantPool.parse(classFileOf(Generic.class)).referencedClassNames();
+
+        assertFalse(references.contains("IST"), references::toString);
+        assertFalse(references.contains("ong"), references::toString);
+        assertTrue(references.containsAll(List.of("java.lang.Number", "java.util.Map", "java.util.List",
+            "java.lang.String", "java.lang.Comparable", "java.util.Map$Entry", "java.lang.Integer")), references::toString);
+    }
+
+    @Test
+    void reads_the_types_of_annotations_and_their_values() throws IOException {
+        ConstantPool constantPool = ConstantPool.parse(classFileOf(Annotated.class));
+
+        assertEquals(Set.of(Uses.class.getName()), constantPool.annotationTypes());
+        assertTrue(constantPool.referencedClassNames().containsAll(List.of(Uses.class.getName(), Clock.class.getName(),
+            TimeUnit.class.getName(), Deprecated.class.getName())), constantPool.referencedClassNames()::toString);
+        assertEquals(Annotated.class.getName(), constantPool.className());
+    }
+
+    @Test
+    void reads_the_types_of_members_and_the_members_referred_to() throws IOException {
+        Set<String> references = ConstantPool.parse(classFileOf(Members.class)).referencedClassNames();
+
+        assertTrue(references.containsAll(List.of("java.time.Duration", "java.util.Optional", "java.lang.Runnable",
+            "java.util.concurrent.TimeUnit")), references::toString);
+        assertFalse(references.contains(Members.class.getName()), references::toString);
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Literals {
+        private final String description = "Lcom/acme/Ghost; and Lorg/acme/Other<";
+        private final String title = "List of orders;";
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Generic<LIST extends Number, Long extends Comparable<Long>> {
+        private LIST value;
+        private Long other;
+        private Map<String, List<LIST>> byName;
+        private Map.Entry<String, Integer> entry;
+    }
+
+    @Retention(RetentionPolicy.CLASS)
+    private @interface Uses {
+        Class<?> value();
+
+        TimeUnit unit() default TimeUnit.SECONDS;
+    }
+
+    @Uses(value = Clock.class, unit = TimeUnit.MILLISECONDS)
+    private static final class Annotated {
+        @Deprecated
+        void legacy() {
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Members {
+        private java.time.Duration timeout;
+
+        java.util.Optional<String> lookup(Runnable callback) {
+            return java.util.Optional.of(TimeUnit.SECONDS.name());
+        }
+    }
+}
@@ -1,113 +1,138 @@
 package com.archunit;
 
+import static com.archunit.PackagePatterns.resideInAPackage;
+import static com.archunit.PackagePatterns.resideInAnyPackage;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.noClasses;
 
 import com.tngtech.archunit.core.importer.ImportOption;
 import com.tngtech.archunit.junit.AnalyzeClasses;
 import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.junit.ArchTests;
 import com.tngtech.archunit.lang.ArchRule;
 
 @AnalyzeClasses(
-    packages = "com",
+    locations = SharedClassImport.ApplicationLocations.class,
     importOptions = {
         ImportOption.DoNotIncludeTests.class,
         ImportOption.DoNotIncludeJars.class,
-        ImportOption.DoNotIncludeArchives.class
+        ImportOption.DoNotIncludeArchives.class,
+        SharedClassImport.TrackImports.class
     }
 )
 public class CoreDomainArchitectureTest {
 
+  @ArchTest
+  static final ArchTests shared_class_import = ArchTests.in(SharedClassImport.class);
+
+  private static final SuiteRules SUITE = new SuiteRules(CoreDomainArchitectureTest.class);
+
+  // Packages core must not depend on, shared with the constant pool scan in PackageDependencyScanTest
+  static final String[] ADAPTER_PACKAGES = {"..adapters.."};
+  static final String[] INFRASTRUCTURE_CONFIG_OR_UTIL_PACKAGES = {"..infrastructure.config..", "..infrastructure.util.."};
+  static final String[] JPA_PACKAGES = {"jakarta.persistence..", "javax.persistence..", "org.hibernate.."};
+  static final String[] JACKSON_PACKAGES = {"com.fasterxml.jackson.."};
+  static final String[] WEB_FRAMEWORK_PACKAGES = {"jakarta.servlet..", "javax.servlet..", "org.springframework.web.."};
+
+  // All rules below select the core classes and are checked in a single pass over them
+  private static final FusedRules CORE_RULES = new FusedRules(resideInAPackage("..core.."));
+
+  // Only annotated classes can violate this rule, the name alone does not
   @ArchTest
   static final ArchRule repositories_should_not_be_in_core =
-      noClasses()
-          .that().resideInAPackage("..core..")
-          .should().haveSimpleNameEndingWith("Repository")
-          .andShould().beAnnotatedWith("org.springframework.stereotype.Repository")
-          .orShould().beAnnotatedWith("org.springframework.data.repository.Repository")
-          .allowEmptyShould(true);
+      SUITE.rule(CORE_RULES.forbiddingAnnotations(
+          noClasses()
+              .that(resideInAPackage("..core.."))
+              .should().haveSimpleNameEndingWith("Repository")
+              .andShould().beAnnotatedWith("org.springframework.stereotype.Repository")
+              .orShould().beAnnotatedWith("org.springframework.data.repository.Repository")
+              .allowEmptyShould(true)));
 
   @ArchTest
   static final ArchRule core_should_not_depend_on_adapters =
-      noClasses()
-          .that().resideInAPackage("..core..")
-          .should().dependOnClassesThat()
-          .resideInAnyPackage("..adapters..")
-          .allowEmptyShould(true);
+      SUITE.rule(CORE_RULES.forbiddingDependencies(ADAPTER_PACKAGES,
+          noClasses()
+              .that(resideInAPackage("..core.."))
+              .should().dependOnClassesThat(resideInAnyPackage(ADAPTER_PACKAGES))
+              .allowEmptyShould(true)));
 
   @ArchTest
   static final ArchRule core_should_not_depend_on_infrastructure_config_or_util =
-      noClasses()
-          .that().resideInAPackage("..core..")
-          .should().dependOnClassesThat()
-          .resideInAnyPackage("..infrastructure.config..", "..infrastructure.util..")
-          .allowEmptyShould(true)
-          .because(
-              "Core must not depend on infrastructure config or util packages; only infrastructure.stereotype is allowed");
+      SUITE.rule(CORE_RULES.forbiddingDependencies(INFRASTRUCTURE_CONFIG_OR_UTIL_PACKAGES,
+          noClasses()
+              .that(resideInAPackage("..core.."))
+              .should().dependOnClassesThat(resideInAnyPackage(INFRASTRUCTURE_CONFIG_OR_UTIL_PACKAGES))
+              .allowEmptyShould(true)
+              .because(
+                  "Core must not depend on infrastructure config or util packages; only infrastructure.stereotype is allowed")));
 
   @ArchTest
   static final ArchRule core_should_not_depend_on_jpa =
-      noClasses()
-          .that().resideInAPackage("..core..")
-          .should().dependOnClassesThat()
-          .resideInAnyPackage("jakarta.persistence..", "javax.persistence..", "org.hibernate..")
-          .allowEmptyShould(true);
+      SUITE.rule(CORE_RULES.forbiddingDependencies(JPA_PACKAGES,
+          noClasses()
+              .that(resideInAPackage("..core.."))
+              .should().dependOnClassesThat(resideInAnyPackage(JPA_PACKAGES))
+              .allowEmptyShould(true)));
 
   @ArchTest
   static final ArchRule core_should_not_depend_on_jackson =
-      noClasses()
-          .that().resideInAPackage("..core..")
-          .should().dependOnClassesThat()
-          .resideInAnyPackage("com.fasterxml.jackson..")
-          .allowEmptyShould(true);
+      SUITE.rule(CORE_RULES.forbiddingDependencies(JACKSON_PACKAGES,
+          noClasses()
+              .that(resideInAPackage("..core.."))
+              .should().dependOnClassesThat(resideInAnyPackage(JACKSON_PACKAGES))
+              .allowEmptyShould(true)));
 
   @ArchTest
   static final ArchRule core_should_not_depend_on_web_frameworks =
-      noClasses()
-          .that().resideInAPackage("..core..")
-          .should().dependOnClassesThat()
-          .resideInAnyPackage("jakarta.servlet..", "javax.servlet..", "org.springframework.web..")
-          .allowEmptyShould(true);
+      SUITE.rule(CORE_RULES.forbiddingDependencies(WEB_FRAMEWORK_PACKAGES,
+          noClasses()
+              .that(resideInAPackage("..core.."))
+              .should().dependOnClassesThat(resideInAnyPackage(WEB_FRAMEWORK_PACKAGES))
+              .allowEmptyShould(true)));
 
   @ArchTest
   static final ArchRule core_should_not_use_spring_annotations =
-      noClasses()
-          .that().resideInAPackage("..core..")
-          .should().beAnnotatedWith("org.springframework.stereotype.Service")
-          .orShould().beAnnotatedWith("org.springframework.stereotype.Repository")
-          .orShould().beAnnotatedWith("org.springframework.web.bind.annotation.RestController")
-          .orShould()
-          .beAnnotatedWith("org.springframework.boot.autoconfigure.SpringBootApplication")
-          .allowEmptyShould(true);
+      SUITE.rule(CORE_RULES.forbiddingAnnotations(
+          noClasses()
+              .that(resideInAPackage("..core.."))
+              .should().beAnnotatedWith("org.springframework.stereotype.Service")
+              .orShould().beAnnotatedWith("org.springframework.stereotype.Repository")
+              .orShould().beAnnotatedWith("org.springframework.web.bind.annotation.RestController")
+              .orShould()
+              .beAnnotatedWith("org.springframework.boot.autoconfigure.SpringBootApplication")
+              .allowEmptyShould(true)));
 
   @ArchTest
   static final ArchRule core_should_not_use_jpa_annotations =
-      noClasses()
-          .that().resideInAPackage("..core..")
-          .should().beAnnotatedWith("jakarta.persistence.Entity")
-          .orShould().beAnnotatedWith("jakarta.persistence.Table")
-          .orShould().beAnnotatedWith("jakarta.persistence.Id")
-          .orShould().beAnnotatedWith("jakarta.persistence.Column")
-          .orShould().beAnnotatedWith("javax.persistence.Entity")
-          .orShould().beAnnotatedWith("javax.persistence.Table")
-          .orShould().beAnnotatedWith("javax.persistence.Id")
-          .orShould().beAnnotatedWith("javax.persistence.Column")
-          .allowEmptyShould(true);
+      SUITE.rule(CORE_RULES.forbiddingAnnotations(
+          noClasses()
+              .that(resideInAPackage("..core.."))
+              .should().beAnnotatedWith("jakarta.persistence.Entity")
+              .orShould().beAnnotatedWith("jakarta.persistence.Table")
+              .orShould().beAnnotatedWith("jakarta.persistence.Id")
+              .orShould().beAnnotatedWith("jakarta.persistence.Column")
+              .orShould().beAnnotatedWith("javax.persistence.Entity")
+              .orShould().beAnnotatedWith("javax.persistence.Table")
+              .orShould().beAnnotatedWith("javax.persistence.Id")
+              .orShould().beAnnotatedWith("javax.persistence.Column")
+              .allowEmptyShould(true)));
 
   @ArchTest
   static final ArchRule core_should_not_have_external_annotations =
-      noClasses()
-          .that().resideInAPackage("..core..")
-          .should().beAnnotatedWith("com.fasterxml.jackson.annotation.JsonProperty")
-          .orShould().beAnnotatedWith("org.springframework.beans.factory.annotation.Autowired")
-          .orShould().beAnnotatedWith("org.springframework.beans.factory.annotation.Value")
-          .allowEmptyShould(true);
+      SUITE.rule(CORE_RULES.forbiddingAnnotations(
+          noClasses()
+              .that(resideInAPackage("..core.."))
+              .should().beAnnotatedWith("com.fasterxml.jackson.annotation.JsonProperty")
+              .orShould().beAnnotatedWith("org.springframework.beans.factory.annotation.Autowired")
+              .orShould().beAnnotatedWith("org.springframework.beans.factory.annotation.Value")
+              .allowEmptyShould(true)));
 
 
   @ArchTest
   static final ArchRule autowired_should_not_be_used_in_core =
-      noClasses()
-          .that().resideInAPackage("..core..")
-          .should().beAnnotatedWith("org.springframework.beans.factory.annotation.Autowired")
-          .allowEmptyShould(true);
+      SUITE.rule(CORE_RULES.forbiddingAnnotations(
+          noClasses()
+              .that(resideInAPackage("..core.."))
+              .should().beAnnotatedWith("org.springframework.beans.factory.annotation.Autowired")
+              .allowEmptyShould(true)));
 }
\ No newline at end of file
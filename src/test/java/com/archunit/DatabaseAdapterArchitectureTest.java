@@ -3,57 +3,72 @@ package com.archunit;
 import com.tngtech.archunit.core.importer.ImportOption;
 import com.tngtech.archunit.junit.AnalyzeClasses;
 import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.junit.ArchTests;
 import com.tngtech.archunit.lang.ArchRule;
 
+import static com.archunit.ClassIndex.among;
+import static com.archunit.ClassIndex.annotatedWith;
+import static com.archunit.ClassIndex.simpleNameEndingWith;
+import static com.archunit.PackagePatterns.resideInAPackage;
+import static com.archunit.PackagePatterns.resideOutsideOfPackages;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.*;
 
 @AnalyzeClasses(
-    packages = "com",
+    locations = SharedClassImport.ApplicationLocations.class,
     importOptions = {
         ImportOption.DoNotIncludeTests.class,
         ImportOption.DoNotIncludeJars.class,
-        ImportOption.DoNotIncludeArchives.class
+        ImportOption.DoNotIncludeArchives.class,
+        SharedClassImport.TrackImports.class
     }
 )
 public class DatabaseAdapterArchitectureTest {
 
+    @ArchTest
+    static final ArchTests shared_class_import = ArchTests.in(SharedClassImport.class);
+
+    private static final SuiteRules SUITE = new SuiteRules(DatabaseAdapterArchitectureTest.class);
+
     @ArchTest
     static final ArchRule database_adapters_should_be_in_database_package =
-        classes()
-            .that().haveSimpleNameEndingWith("Repository")
-            .and().areNotInterfaces()
-            .or().areAnnotatedWith("org.springframework.stereotype.Repository")
-            .and().resideOutsideOfPackages("com.sun..", "sun..", "java..", "javax..", "jakarta..", "com.github..", "org.springframework.data..")
-            .should().resideInAPackage("..adapters.database..")
-            .allowEmptyShould(true);
+        SUITE.rule(among(simpleNameEndingWith("Repository").or(annotatedWith("org.springframework.stereotype.Repository")),
+            classes()
+                .that().haveSimpleNameEndingWith("Repository")
+                .and().areNotInterfaces()
+                .or().areAnnotatedWith("org.springframework.stereotype.Repository")
+                .and(resideOutsideOfPackages("com.sun..", "sun..", "java..", "javax..", "jakarta..", "com.github..", "org.springframework.data.."))
+                .should().resideInAPackage("..adapters.database..")
+                .allowEmptyShould(true)));
 
     @ArchTest
     static final ArchRule jpa_entities_should_be_in_database_adapters =
-        classes()
-            .that().areAnnotatedWith("jakarta.persistence.Entity")
-            .or().areAnnotatedWith("javax.persistence.Entity")
-            .should().resideInAPackage("..adapters.database..")
-            .allowEmptyShould(true);
+        SUITE.rule(among(annotatedWith("jakarta.persistence.Entity", "javax.persistence.Entity"),
+            classes()
+                .that().areAnnotatedWith("jakarta.persistence.Entity")
+                .or().areAnnotatedWith("javax.persistence.Entity")
+                .should().resideInAPackage("..adapters.database..")
+                .allowEmptyShould(true)));
 
     @ArchTest
     static final ArchRule entities_should_not_use_spring_annotations =
-        noClasses()
-            .that().areAnnotatedWith("jakarta.persistence.Entity")
-            .or().areAnnotatedWith("javax.persistence.Entity")
-            .should().beAnnotatedWith("org.springframework.stereotype.Component")
-            .orShould().beAnnotatedWith("org.springframework.stereotype.Service")
-            .orShould().beAnnotatedWith("org.springframework.stereotype.Repository")
-            .allowEmptyShould(true);
+        SUITE.rule(among(annotatedWith("jakarta.persistence.Entity", "javax.persistence.Entity"),
+            noClasses()
+                .that().areAnnotatedWith("jakarta.persistence.Entity")
+                .or().areAnnotatedWith("javax.persistence.Entity")
+                .should().beAnnotatedWith("org.springframework.stereotype.Component")
+                .orShould().beAnnotatedWith("org.springframework.stereotype.Service")
+                .orShould().beAnnotatedWith("org.springframework.stereotype.Repository")
+                .allowEmptyShould(true)));
 
     @ArchTest
     static final ArchRule database_adapters_should_implement_core_interfaces =
-        classes()
-            .that().resideInAPackage("..adapters.database..")
-            .and().haveSimpleNameEndingWith("Adapter")
-            .should().dependOnClassesThat()
-            .resideInAPackage("..core..")
-            .andShould().beAnnotatedWith("org.springframework.stereotype.Component")
-            .orShould().beAnnotatedWith("org.springframework.stereotype.Service")
-            .orShould().beAnnotatedWith("org.springframework.stereotype.Repository")
-            .allowEmptyShould(true);
+        SUITE.rule(among(simpleNameEndingWith("Adapter"),
+            classes()
+                .that(resideInAPackage("..adapters.database.."))
+                .and().haveSimpleNameEndingWith("Adapter")
+                .should().dependOnClassesThat(resideInAPackage("..core.."))
+                .andShould().beAnnotatedWith("org.springframework.stereotype.Component")
+                .orShould().beAnnotatedWith("org.springframework.stereotype.Service")
+                .orShould().beAnnotatedWith("org.springframework.stereotype.Repository")
+                .allowEmptyShould(true)));
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.archunit;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records an {@link ArchitectureEvents.RuleEvaluation} per rule of the suites while a flight recording runs, and ends
+ * the {@link ArchitectureEvents.ClassImport} with the rule the classes were imported for. Registered like the
+ * {@link ImportCacheListener}.
+ */
+public class FlightRecorderListener implements TestExecutionListener {
+
+    // "was violated (3 times)", "(100+ violations (truncated))" or "(2637 times, first 10 shown, ...)"
+    private static final Pattern VIOLATIONS = Pattern.compile("was violated \\((\\d+)");
+
+    private final Map<String, Evaluation> started = new ConcurrentHashMap<>();
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (!testIdentifier.isTest() || ImportCacheListener.suiteOf(testIdentifier).isEmpty()) {
+            return;
+        }
+        ArchitectureEvents.RuleEvaluation event = new ArchitectureEvents.RuleEvaluation();
+        if (event.isEnabled()) {
+            event.begin();
+            started.put(testIdentifier.getUniqueId(), new Evaluation(event, SharedClassImport.imports()));
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        if (testIdentifier.isTest() && ImportCacheListener.suiteOf(testIdentifier).isPresent()) {
+            // ArchUnit imports the classes in the first rule of a suite needing them
+            ArchitectureEvents.importFinished();
+        }
+        Evaluation evaluation = started.remove(testIdentifier.getUniqueId());
+        if (evaluation == null) {
+            return;
+        }
+        ArchitectureEvents.RuleEvaluation event = evaluation.event;
+        String suite = ImportCacheListener.suiteOf(testIdentifier).orElseThrow();
+        event.suite = suite.substring(suite.lastIndexOf('.') + 1);
+        event.rule = testIdentifier.getDisplayName();
+        event.passed = testExecutionResult.getStatus() == TestExecutionResult.Status.SUCCESSFUL;
+        event.violations = event.passed ? 0 : violationsOf(testExecutionResult);
+        event.imported = SharedClassImport.imports() != evaluation.imports;
+        event.commit();
+    }
+
+    private static int violationsOf(TestExecutionResult testExecutionResult) {
+        String message = testExecutionResult.getThrowable().map(Throwable::getMessage).orElse(null);
+        Matcher matcher = message == null ? null : VIOLATIONS.matcher(message);
+        return matcher != null && matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    private static final class Evaluation {
+        final ArchitectureEvents.RuleEvaluation event;
+        final int imports;
+
+        Evaluation(ArchitectureEvents.RuleEvaluation event, int imports) {
+            this.event = event;
+            this.imports = imports;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.archunit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * The frozen violations of one rule as a multiset of 64-bit hashes, in an open addressing table: looking up a
+ * violation costs one hash of its text and usually one probe, where ArchUnit's text file store compares it with every
+ * frozen violation left. The hash ignores line numbers ({@code (Order.java:42)}) and the numbers of anonymous classes
+ * and lambdas ({@code $1}), like ArchUnit's default {@code ViolationLineMatcher}, so moving code does not unfreeze it.
+ *
+ * Stored in a binary file per rule: a header with the rule description, then every distinct hash with its count,
+ * sorted by hash. Files are replaced atomically, so a failing run never leaves a half written store behind.
+ *
+ * Rules sharing a description, in other suites or forked JVMs, share a file. Reading, matching and writing it happens
+ * under a lock of that file only, see {@link #locked}, so rules freezing other files never wait for each other.
+ */
+final class FrozenViolations {
+
+    private static final int MAGIC = 0x48584652;
+    private static final int VERSION = 1;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    // Hash 0 marks a free slot, the one violation hashing to it is stored as 1
+    private static final long FREE = 0;
+    // A JVM may hold a file lock only once, so threads take turns on this lock first
+    private static final Map<Path, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+    private long[] hashes = new long[16];
+    private int[] counts = new int[16];
+    private int distinct;
+    private int size;
+
+    static Path file(Path directory, String rule) {
+        return directory.resolve(String.format("%016x.freeze", hash(rule)));
+    }
+
+    /**
+     * Runs the action while holding the lock of the file, against threads of this JVM and against other JVMs by a
+     * {@link FileLock} on {@code <file>.lock}. The lock file is left behind, deleting it could let two JVMs lock
+     * different files.
+     */
+    static <T> T locked(Path file, Supplier<T> action) {
+        Path absolute = file.toAbsolutePath().normalize();
+        ReentrantLock lock = LOCKS.computeIfAbsent(absolute, path -> new ReentrantLock());
+        lock.lock();
+        try {
+            Files.createDirectories(absolute.getParent());
+            Path lockFile = absolute.resolveSibling(absolute.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock fileLock = channel.lock();
+                try {
+                    return action.get();
+                } finally {
+                    fileLock.release();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not lock the frozen violations " + file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * FNV-1a over the violation with line numbers and anonymous class numbers left out, and Windows line breaks read
+     * as Unix ones.
+     */
+    static long hash(String violation) {
+        long hash = FNV_OFFSET_BASIS;
+        int length = violation.length();
+        for (int i = 0; i < length; i++) {
+            char c = violation.charAt(i);
+            if (c == '\r' && i + 1 < length && violation.charAt(i + 1) == '\n') {
+                continue;
+            }
+            hash = (hash ^ c) * FNV_PRIME;
+            if (c == ':' || c == '$') {
+                int end = i + 1;
+                while (end < length && Character.isDigit(violation.charAt(end))) {
+                    end++;
+                }
+                if (c == '$' || end > i + 1 && end < length && violation.charAt(end) == ')') {
+                    i = end - 1;
+                }
+            }
+        }
+        return hash == FREE ? 1 : hash;
+    }
+
+    void add(long hash) {
+        if (2 * (distinct + 1) > hashes.length) {
+            grow();
+        }
+        int slot = slot(hash);
+        if (hashes[slot] == FREE) {
+            hashes[slot] = hash;
+            distinct++;
+        }
+        counts[slot]++;
+        size++;
+    }
+
+    // Takes one occurrence of the violation out, if there is one left
+    boolean remove(long hash) {
+        int slot = slot(hash);
+        if (hashes[slot] == FREE || counts[slot] == 0) {
+            return false;
+        }
+        counts[slot]--;
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    static FrozenViolations read(Path file, String rule) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported freeze store format");
+            }
+            String storedRule = in.readUTF();
+            if (!storedRule.equals(rule)) {
+                throw new IOException("Frozen violations of rule '" + storedRule + "' instead of '" + rule + "'");
+            }
+            FrozenViolations frozen = new FrozenViolations();
+            for (int entries = in.readInt(); entries > 0; entries--) {
+                long hash = in.readLong();
+                for (int count = in.readInt(); count > 0; count--) {
+                    frozen.add(hash);
+                }
+            }
+            return frozen;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the frozen violations " + file, e);
+        }
+    }
+
+    void write(Path file, String rule) {
+        long[] entries = new long[distinct];
+        int entry = 0;
+        for (int slot = 0; slot < hashes.length; slot++) {
+            if (hashes[slot] != FREE && counts[slot] > 0) {
+                entries[entry++] = hashes[slot];
+            }
+        }
+        entries = Arrays.copyOf(entries, entry);
+        Arrays.sort(entries);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(rule);
+                out.writeInt(entries.length);
+                for (long hash : entries) {
+                    out.writeLong(hash);
+                    out.writeInt(counts[slot(hash)]);
+                }
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the frozen violations " + file, e);
+        }
+    }
+
+    // Linear probing from the mixed hash, to the slot holding it or the free slot it belongs in
+    private int slot(long hash) {
+        int mask = hashes.length - 1;
+        int slot = (int) (hash ^ (hash >>> 32)) * 0x9e3779b9 & mask;
+        while (hashes[slot] != FREE && hashes[slot] != hash) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        hashes = new long[oldHashes.length * 2];
+        counts = new int[oldHashes.length * 2];
+        for (int slot = 0; slot < oldHashes.length; slot++) {
+            if (oldHashes[slot] != FREE) {
+                int newSlot = slot(oldHashes[slot]);
+                hashes[newSlot] = oldHashes[slot];
+                counts[newSlot] = oldCounts[slot];
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.archunit;
+
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.lang.Priority;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static com.tngtech.archunit.base.DescribedPredicate.describe;
+
+/**
+ * {@code noClasses()} rules sharing one {@code that()} selector, evaluated in a single pass over the selected classes
+ * instead of one pass per rule. The pass visits every selected class once, combines the packages of all its dependency
+ * targets into one mask and notes whether it is annotated at all. Each rule is then evaluated by ArchUnit on the
+ * classes that can violate it only, so it still passes or fails on its own, with its own
+ * description and messages.
+ *
+ * Two kinds of rules qualify: rules forbidding dependencies on packages, whose candidates depend on one of those
+ * packages, and rules on {@code beAnnotatedWith} conditions, whose candidates carry at least one annotation. The
+ * rules must select with the predicate this instance was created with. Disabled with {@code hexagonal.fused.enabled=false}.
+ */
+final class FusedRules {
+
+    static final String ENABLED_PROPERTY = "hexagonal.fused.enabled";
+
+    private static final int ANNOTATED = -1;
+
+    private final DescribedPredicate<JavaClass> selector;
+    private final List<long[]> dependencySelectors = new ArrayList<>();
+    private Reference<JavaClasses> visited = new WeakReference<>(null);
+    private Visit visit;
+
+    FusedRules(DescribedPredicate<JavaClass> selector) {
+        this.selector = selector;
+    }
+
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(ArchConfiguration.get().getPropertyOrDefault(ENABLED_PROPERTY, "true"));
+    }
+
+    ArchRule forbiddingDependencies(String[] packageIdentifiers, ArchRule rule) {
+        if (!isEnabled()) {
+            return rule;
+        }
+        dependencySelectors.add(PackagePatterns.selectorOf(packageIdentifiers));
+        return new FusedRule(rule, dependencySelectors.size() - 1);
+    }
+
+    ArchRule forbiddingAnnotations(ArchRule rule) {
+        return isEnabled() ? new FusedRule(rule, ANNOTATED) : rule;
+    }
+
+    // All rules of a suite are evaluated against the same imported classes, so one visit serves all of them
+    private synchronized Visit visit(JavaClasses classes) {
+        if (visited.get() != classes) {
+            ArchitectureEvents.IndexBuild event = ArchitectureEvents.indexStarted("FusedRules");
+            visit = new Visit(classes);
+            ArchitectureEvents.indexFinished(event, visit.selected.size());
+            visited = new WeakReference<>(classes);
+        }
+        return visit;
+    }
+
+    private final class Visit {
+        final JavaClasses selected;
+        final List<JavaClass> annotated = new ArrayList<>();
+        final List<List<JavaClass>> dependingOn = new ArrayList<>();
+
+        Visit(JavaClasses classes) {
+            selected = classes.that(selector);
+            for (int i = 0; i < dependencySelectors.size(); i++) {
+                dependingOn.add(new ArrayList<>());
+            }
+            for (JavaClass javaClass : selected) {
+                if (!javaClass.getAnnotations().isEmpty()) {
+                    annotated.add(javaClass);
+                }
+                long[] targets = targetPackagesOf(javaClass);
+                for (int i = 0; targets.length > 0 && i < dependencySelectors.size(); i++) {
+                    if (PackagePatterns.matches(targets, dependencySelectors.get(i))) {
+                        dependingOn.get(i).add(javaClass);
+                    }
+                }
+            }
+        }
+
+        List<JavaClass> candidates(int kind) {
+            return kind == ANNOTATED ? annotated : dependingOn.get(kind);
+        }
+
+        private long[] targetPackagesOf(JavaClass javaClass) {
+            long[] targets = new long[0];
+            for (Dependency dependency : javaClass.getDirectDependenciesFromSelf()) {
+                long[] mask = PackagePatterns.classify(dependency.getTargetClass().getPackageName());
+                if (mask.length > targets.length) {
+                    targets = Arrays.copyOf(targets, mask.length);
+                }
+                for (int i = 0; i < mask.length; i++) {
+                    targets[i] |= mask[i];
+                }
+            }
+            return targets;
+        }
+    }
+
+    private final class FusedRule implements NarrowingRule {
+        private final ArchRule rule;
+        private final int kind;
+
+        FusedRule(ArchRule rule, int kind) {
+            this.rule = rule;
+            this.kind = kind;
+        }
+
+        @Override
+        public void check(JavaClasses classes) {
+            Assertions.check(this, classes);
+        }
+
+        @Override
+        public EvaluationResult evaluate(JavaClasses classes) {
+            JavaClasses candidates = narrow(classes);
+            return candidates == null ? new EvaluationResult(rule, Priority.MEDIUM) : rule.evaluate(candidates);
+        }
+
+        @Override
+        public JavaClasses narrow(JavaClasses classes) {
+            Visit visit = visit(classes);
+            if (visit.selected.isEmpty()) {
+                // Nothing selected: let the rule decide whether that is allowed
+                return visit.selected;
+            }
+            List<JavaClass> candidates = visit.candidates(kind);
+            return candidates.isEmpty() ? null : visit.selected.that(describe("candidates", new HashSet<>(candidates)::contains));
+        }
+
+        @Override
+        public ArchRule decorated() {
+            return rule;
+        }
+
+        @Override
+        public ArchRule because(String reason) {
+            return new FusedRule(rule.because(reason), kind);
+        }
+
+        @Override
+        public ArchRule allowEmptyShould(boolean allowEmptyShould) {
+            return new FusedRule(rule.allowEmptyShould(allowEmptyShould), kind);
+        }
+
+        @Override
+        public ArchRule as(String newDescription) {
+            return new FusedRule(rule.as(newDescription), kind);
+        }
+
+        @Override
+        public String getDescription() {
+            return rule.getDescription();
+        }
+
+        @Override
+        public String toString() {
+            return rule.toString();
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.archunit;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.JavaMember;
+import com.tngtech.archunit.core.domain.JavaPackage;
+import com.tngtech.archunit.lang.extension.ArchUnitExtension;
+import com.tngtech.archunit.lang.extension.EvaluatedRule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Approximate heap footprint of the imported class graph, enabled with {@code hexagonal.footprint=true} to size the
+ * heap of the architecture fork. Once per import, with the first rule checked on it, the classes, members, accesses
+ * and dependencies and the estimated retained bytes are reported per package root - the packages right below the {@link ApplicationRoot} - to the log and
+ * to {@code target/archunit-footprint.csv} (set with {@code hexagonal.footprint.file}).
+ *
+ * The graph is walked by reflection and every object is sized from its fields, assuming the JVM's compressed
+ * pointers and 8 byte alignment; JDK collections and strings are sized from their length. A class owns what is reachable
+ * from it without passing another class or its members, so an access counts for the class it is made from. Classes
+ * only referenced by the import (like {@code java.lang.String}) and what no single class owns, like ArchUnit's reverse
+ * dependencies and the packages, are reported as rows of their own.
+ */
+final class HeapFootprint {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HeapFootprint.class);
+
+    static final String ENABLED_PROPERTY = "hexagonal.footprint";
+    static final String FILE_PROPERTY = "hexagonal.footprint.file";
+    static final String EXTENSION = "hexagonal-footprint";
+
+    static final String REFERENCED = "(referenced classes)";
+    static final String SHARED = "(shared)";
+
+    private static final boolean COMPRESSED_OOPS = vmFlag("UseCompressedOops", true);
+    private static final boolean COMPRESSED_CLASS_POINTERS = vmFlag("UseCompressedClassPointers", true);
+    private static final int REFERENCE = COMPRESSED_OOPS ? 4 : 8;
+    private static final int HEADER = COMPRESSED_CLASS_POINTERS ? 12 : 16;
+    private static final int ARRAY_HEADER = HEADER + 4;
+    // HashMap.Node: hash, key, value and next
+    private static final long MAP_NODE = align(HEADER + 4 + 3L * REFERENCE);
+
+    private static int reportedImport;
+
+    private HeapFootprint() {
+    }
+
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(ArchConfiguration.get().getPropertyOrDefault(ENABLED_PROPERTY, "false"));
+    }
+
+    // ArchUnit hands the classes of a checked rule to enabled extensions only, so the import enables the Extension
+    static void importStarted() {
+        if (isEnabled()) {
+            ArchConfiguration.get().configureExtension(EXTENSION).setProperty("enabled", true);
+        }
+    }
+
+    // Every rule checked on the import hands it over, only the first one is reported
+    static synchronized void reportOnce(JavaClasses classes) {
+        if (!isEnabled() || reportedImport == SharedClassImport.imports()) {
+            return;
+        }
+        reportedImport = SharedClassImport.imports();
+        List<Footprint> footprints = measure(classes, ApplicationRoot.packageName(SharedClassImport.class));
+        Path file = Paths.get(ArchConfiguration.get().getPropertyOrDefault(FILE_PROPERTY, "target/archunit-footprint.csv"));
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            writeCsv(file, footprints);
+        } catch (IOException e) {
+            LOG.warn("Could not write the heap footprint to {}", file, e);
+        }
+        LOG.info(summary(footprints, file));
+    }
+
+    static List<Footprint> measure(JavaClasses classes, String rootPackage) {
+        Map<String, Footprint> byRoot = new LinkedHashMap<>();
+        Walk walk = new Walk();
+        for (JavaClass javaClass : classes) {
+            Footprint footprint = byRoot.computeIfAbsent(packageRoot(javaClass.getPackageName(), rootPackage), Footprint::new);
+            footprint.classes++;
+            footprint.members += javaClass.getMembers().size();
+            footprint.accesses += javaClass.getAccessesFromSelf().size();
+            // Memoized by ArchUnit, the rules compute them anyway
+            footprint.dependencies += javaClass.getDirectDependenciesFromSelf().size();
+            walk.owned(javaClass, footprint);
+        }
+        Footprint referenced = new Footprint(REFERENCED);
+        for (JavaClass javaClass = walk.nextReferencedClass(); javaClass != null; javaClass = walk.nextReferencedClass()) {
+            referenced.classes++;
+            walk.owned(javaClass, referenced);
+        }
+        Footprint shared = new Footprint(SHARED);
+        walk.shared(classes, shared);
+
+        List<Footprint> footprints = new ArrayList<>(byRoot.values());
+        footprints.sort(Comparator.comparingLong((Footprint footprint) -> footprint.bytes).reversed());
+        footprints.add(referenced);
+        footprints.add(shared);
+        return footprints;
+    }
+
+    // The package right below the root package, or the root package itself
+    private static String packageRoot(String packageName, String rootPackage) {
+        if (!packageName.startsWith(rootPackage + ".")) {
+            return packageName.isEmpty() ? "(default package)" : packageName;
+        }
+        int end = packageName.indexOf('.', rootPackage.length() + 1);
+        return end < 0 ? packageName : packageName.substring(0, end);
+    }
+
+    private static void writeCsv(Path file, List<Footprint> footprints) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("packageRoot,classes,members,accesses,dependencies,objects,bytes\n");
+            for (Footprint footprint : footprints) {
+                writer.write(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d%n", footprint.packageRoot,
+                    footprint.classes, footprint.members, footprint.accesses, footprint.dependencies,
+                    footprint.objects, footprint.bytes));
+            }
+        }
+    }
+
+    private static String summary(List<Footprint> footprints, Path file) {
+        long bytes = footprints.stream().mapToLong(footprint -> footprint.bytes).sum();
+        long objects = footprints.stream().mapToLong(footprint -> footprint.objects).sum();
+        System.gc();
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        StringBuilder summary = new StringBuilder(String.format(Locale.ROOT,
+            "Imported class graph retains ~%,.1f MB in %,d objects, heap used after GC %,.1f MB of %s, all in %s:",
+            bytes / 1e6, objects, heap.getUsed() / 1e6,
+            heap.getMax() < 0 ? "no maximum" : String.format(Locale.ROOT, "%,.1f MB", heap.getMax() / 1e6), file));
+        summary.append(String.format(Locale.ROOT, "%n%10s %6s %8s %9s %9s %12s  %s",
+            "MB", "%", "classes", "members", "accesses", "dependencies", "package root"));
+        for (Footprint footprint : footprints) {
+            summary.append(String.format(Locale.ROOT, "%n%,10.1f %5.1f%% %,8d %,9d %,9d %,12d  %s",
+                footprint.bytes / 1e6, bytes == 0 ? 0 : 100.0 * footprint.bytes / bytes, footprint.classes,
+                footprint.members, footprint.accesses, footprint.dependencies, footprint.packageRoot));
+        }
+        return summary.toString();
+    }
+
+    private static boolean vmFlag(String name, boolean orElse) {
+        try {
+            return Boolean.parseBoolean(ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class).getVMOption(name).getValue());
+        } catch (RuntimeException e) {
+            return orElse;
+        }
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * One package root of the import: what its classes declare and what they retain.
+     */
+    static final class Footprint {
+        final String packageRoot;
+        int classes;
+        long members;
+        long accesses;
+        long dependencies;
+        long objects;
+        long bytes;
+
+        Footprint(String packageRoot) {
+            this.packageRoot = packageRoot;
+        }
+    }
+
+    // Walks the graph once, every object counts for the first owner reaching it
+    private static final class Walk {
+        private final Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Deque<JavaClass> referencedClasses = new ArrayDeque<>();
+        private final Deque<Object> sharedObjects = new ArrayDeque<>();
+        private final Deque<Object> stack = new ArrayDeque<>();
+        private final Map<Class<?>, Shape> shapes = new HashMap<>();
+
+        // Whatever the owner reaches without passing another class, its members or the shared objects
+        void owned(Object owner, Footprint footprint) {
+            walk(owner, owner, footprint);
+        }
+
+        // A class reached by the import but not imported itself, null once there are none left
+        JavaClass nextReferencedClass() {
+            for (JavaClass javaClass = referencedClasses.poll(); javaClass != null; javaClass = referencedClasses.poll()) {
+                if (!seen.contains(javaClass)) {
+                    return javaClass;
+                }
+            }
+            return null;
+        }
+
+        // Everything left, once every class took what it owns
+        void shared(JavaClasses classes, Footprint footprint) {
+            walk(classes, null, footprint);
+            for (Object shared = sharedObjects.poll(); shared != null; shared = sharedObjects.poll()) {
+                walk(shared, null, footprint);
+            }
+        }
+
+        private void walk(Object root, Object owner, Footprint footprint) {
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                Object object = stack.pop();
+                if (!seen.add(object)) {
+                    continue;
+                }
+                Shape shape = shapes.computeIfAbsent(object.getClass(), Shape::new);
+                footprint.objects++;
+                footprint.bytes += shape.size(object);
+                for (Object child : shape.children(object)) {
+                    if (child == null || seen.contains(child) || isOutsideOfGraph(child)) {
+                        continue;
+                    }
+                    if (owner == null || !isBoundary(child, owner)) {
+                        stack.push(child);
+                    } else if (child instanceof JavaClass) {
+                        referencedClasses.add((JavaClass) child);
+                    } else {
+                        sharedObjects.add(child);
+                    }
+                }
+                if (shape.storage != null) {
+                    long[] storage = shape.storage(object);
+                    footprint.objects += storage[0];
+                    footprint.bytes += storage[1];
+                }
+            }
+        }
+
+        private static boolean isBoundary(Object object, Object owner) {
+            if (object instanceof JavaClass) {
+                return object != owner;
+            }
+            if (object instanceof JavaMember) {
+                return ((JavaMember) object).getOwner() != owner;
+            }
+            // The packages, the reverse dependencies and what the importer left behind are shared by all classes
+            return object instanceof JavaPackage
+                || object instanceof JavaClasses
+                || object.getClass().getName().equals("com.tngtech.archunit.core.domain.ReverseDependencies")
+                || object.getClass().getName().startsWith("com.tngtech.archunit.core.importer.");
+        }
+
+        // Shared by the whole JVM, not retained by the import
+        private static boolean isOutsideOfGraph(Object object) {
+            return object instanceof Class
+                || object instanceof ClassLoader
+                || object instanceof Module
+                || object instanceof Thread
+                || object instanceof Enum
+                || object.getClass().getName().startsWith("java.lang.reflect.");
+        }
+    }
+
+    // Size and references of the instances of one class
+    private static final class Shape {
+        private final Class<?> type;
+        private final long size;
+        private final List<Field> references = new ArrayList<>();
+        // JDK collections are sized from their length instead of their inaccessible fields
+        private final Storage storage;
+
+        Shape(Class<?> type) {
+            this.type = type;
+            long fields = 0;
+            boolean jdk = isJdk(type);
+            for (Class<?> declaring = type; declaring != null; declaring = declaring.getSuperclass()) {
+                for (Field field : declaring.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    fields += bytesOf(field.getType());
+                    if (!jdk && !field.getType().isPrimitive()) {
+                        try {
+                            field.setAccessible(true);
+                            references.add(field);
+                        } catch (RuntimeException e) {
+                            // Sized, but not followed
+                        }
+                    }
+                }
+            }
+            this.size = type.isArray() ? ARRAY_HEADER : align(HEADER + fields);
+            this.storage = !jdk ? null
+                : Map.class.isAssignableFrom(type) ? Storage.HASHED
+                : Set.class.isAssignableFrom(type) ? Storage.HASHED
+                : Collection.class.isAssignableFrom(type) ? Storage.ARRAY
+                : type == String.class ? Storage.CHARACTERS
+                : null;
+        }
+
+        long size(Object object) {
+            return type.isArray() ? align(ARRAY_HEADER + (long) Array.getLength(object) * bytesOf(type.getComponentType())) : size;
+        }
+
+        Iterable<?> children(Object object) {
+            if (object instanceof Object[]) {
+                return Arrays.asList((Object[]) object);
+            }
+            if (type.isArray()) {
+                return List.of();
+            }
+            if (object instanceof Map) {
+                List<Object> children = new ArrayList<>();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                    children.add(entry.getKey());
+                    children.add(entry.getValue());
+                }
+                return children;
+            }
+            if (storage != null && object instanceof Collection) {
+                return new ArrayList<>((Collection<?>) object);
+            }
+            if (object instanceof Optional) {
+                return Collections.singletonList(((Optional<?>) object).orElse(null));
+            }
+            List<Object> children = new ArrayList<>(references.size());
+            for (Field reference : references) {
+                try {
+                    children.add(reference.get(object));
+                } catch (IllegalAccessException e) {
+                    // Sized, but not followed
+                }
+            }
+            return children;
+        }
+
+        // The objects and bytes behind a JDK collection or string
+        long[] storage(Object object) {
+            switch (storage) {
+                case HASHED:
+                    int entries = object instanceof Map ? ((Map<?, ?>) object).size() : ((Collection<?>) object).size();
+                    int table = Integer.highestOneBit(Math.max(1, (int) Math.ceil(entries / 0.75)) * 2 - 1);
+                    return new long[]{1L + entries, align(ARRAY_HEADER + (long) table * REFERENCE) + entries * MAP_NODE};
+                case ARRAY:
+                    return new long[]{1, align(ARRAY_HEADER + (long) ((Collection<?>) object).size() * REFERENCE)};
+                default:
+                    return new long[]{1, align(ARRAY_HEADER + ((String) object).length())};
+            }
+        }
+
+        private static boolean isJdk(Class<?> type) {
+            String name = type.getName();
+            return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.");
+        }
+
+        private static int bytesOf(Class<?> type) {
+            if (type == long.class || type == double.class) {
+                return 8;
+            }
+            if (type == int.class || type == float.class) {
+                return 4;
+            }
+            if (type == short.class || type == char.class) {
+                return 2;
+            }
+            if (type == byte.class || type == boolean.class) {
+                return 1;
+            }
+            return REFERENCE;
+        }
+
+        private enum Storage {
+            HASHED, ARRAY, CHARACTERS
+        }
+    }
+
+    /**
+     * Reports the footprint of the classes the first rule after an import is checked on, registered in
+     * {@code META-INF/services/com.tngtech.archunit.lang.extension.ArchUnitExtension}.
+     */
+    public static final class Extension implements ArchUnitExtension {
+        @Override
+        public String getUniqueIdentifier() {
+            return EXTENSION;
+        }
+
+        @Override
+        public void configure(Properties properties) {
+        }
+
+        @Override
+        public void handle(EvaluatedRule evaluatedRule) {
+            reportOnce(evaluatedRule.getClasses());
+        }
+    }
+}
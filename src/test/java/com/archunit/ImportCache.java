@@ -0,0 +1,242 @@
+package com.archunit;
+
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.core.importer.Location;
+import com.tngtech.archunit.core.importer.Locations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache of the class import under {@code target/archunit-cache}, enabled with
+ * {@code hexagonal.cache.enabled=true} in {@code archunit.properties} or {@code -Darchunit.hexagonal.cache.enabled=true}.
+ *
+ * ArchUnit cannot rebuild {@code JavaClasses} from disk, so instead of the class graph the cache stores the content
+ * hashes of all imported class files and the suites that passed on them. A suite that passed on exactly the same
+ * class files, rules, import options, class path and ArchUnit version skips the import completely. Any difference
+ * in the fingerprint discards the cache.
+ *
+ * With {@code hexagonal.cache.incremental=true} a suite that passed before only re-imports the class files affected
+ * by the changes since then (see {@link ClassFileSnapshot#changesSince}), so a single changed class is re-verified
+ * against its direct neighbours instead of the whole application. This is only sound for rules that look at single
+ * classes and their dependencies, like all rules of these suites - rules spanning the whole graph, e.g. cycle checks,
+ * need the full import.
+ * Decisions about the whole application, like which layers it has, are taken on
+ * {@link #applicationPackages() all its packages} instead of the affected classes.
+ */
+final class ImportCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImportCache.class);
+
+    static final String ENABLED_PROPERTY = "hexagonal.cache.enabled";
+    static final String DIRECTORY_PROPERTY = "hexagonal.cache.directory";
+    static final String INCREMENTAL_PROPERTY = "hexagonal.cache.incremental";
+    private static final String SNAPSHOT_FILE = "import-snapshot.bin";
+
+    private static ClassFileSnapshot previous;
+    private static ClassFileSnapshot current;
+    private static ClassFileSnapshot.Changes changes;
+    private static Set<Location> affectedLocations;
+    private static boolean partialImport;
+
+    private ImportCache() {
+    }
+
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(ArchConfiguration.get().getPropertyOrDefault(ENABLED_PROPERTY, "false"));
+    }
+
+    static boolean isIncremental() {
+        return Boolean.parseBoolean(ArchConfiguration.get().getPropertyOrDefault(INCREMENTAL_PROPERTY, "false"));
+    }
+
+    static synchronized Set<Location> locationsFor(Class<?> suite) {
+        String rootPackage = ApplicationRoot.packageName(suite);
+        Set<Location> locations = Locations.ofPackage(rootPackage);
+        if (!isEnabled()) {
+            return locations;
+        }
+        if (current == null) {
+            initialize(suite, rootPackage);
+        }
+        if (previous == null || !previous.isGreen(suite.getName())) {
+            return locations;
+        }
+        if (changes.isEmpty()) {
+            LOG.info("{} passed on the same {} class files before, skipping its import (cache: {})",
+                suite.getSimpleName(), current.size(), snapshotFile());
+            partialImport = true;
+            return Collections.emptySet();
+        }
+        if (isIncremental()) {
+            LOG.info("{} passed before, re-importing {} of {} class files affected by {} added, {} modified and {} deleted",
+                suite.getSimpleName(), affectedLocations.size(), current.size(), changes.added, changes.modified, changes.deleted);
+            partialImport = true;
+            return affectedLocations;
+        }
+        return locations;
+    }
+
+    // All suites served from the cache share one additional import of the affected classes, which may be empty
+    static synchronized boolean partialImport() {
+        return partialImport;
+    }
+
+    // Packages of the whole application if the suites only see a partial import of it, otherwise null
+    static synchronized Set<String> applicationPackages() {
+        return partialImport ? current.packageNames() : null;
+    }
+
+    static synchronized void commit(Set<String> passedSuites, Set<String> failedSuites) {
+        if (current == null) {
+            return;
+        }
+        Set<String> greenSuites = new TreeSet<>();
+        if (previous != null && previous.hasSameInputsAs(current)) {
+            greenSuites.addAll(previous.greenSuites());
+        }
+        greenSuites.addAll(passedSuites);
+        greenSuites.removeAll(failedSuites);
+        try {
+            current.withGreenSuites(greenSuites).write(snapshotFile());
+        } catch (IOException e) {
+            LOG.warn("Could not write the import cache {}", snapshotFile(), e);
+        }
+    }
+
+    private static void initialize(Class<?> suite, String rootPackage) {
+        List<ImportOption> importOptions = ApplicationClassFiles.importOptionsOf(suite);
+        List<Path> classFiles = ApplicationClassFiles.find(rootPackage, importOptions);
+        String archUnitVersion = archUnitVersion();
+        String fingerprint = fingerprint(rootPackage, importOptions);
+        previous = readPrevious(archUnitVersion, fingerprint);
+        current = ClassFileSnapshot.take(archUnitVersion, fingerprint, classFiles, previous);
+        if (previous != null) {
+            changes = current.changesSince(previous);
+            Set<Location> affected = new LinkedHashSet<>();
+            changes.affectedFiles.forEach(file -> affected.add(Location.of(file)));
+            affectedLocations = Collections.unmodifiableSet(affected);
+        }
+    }
+
+    private static ClassFileSnapshot readPrevious(String archUnitVersion, String fingerprint) {
+        return readPrevious(snapshotFile(), archUnitVersion, fingerprint);
+    }
+
+    // The snapshot in the file if it was taken with the same fingerprint, otherwise the file is deleted
+    static ClassFileSnapshot readPrevious(Path file, String archUnitVersion, String fingerprint) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            ClassFileSnapshot snapshot = ClassFileSnapshot.read(file);
+            if (!snapshot.hasFingerprint(archUnitVersion, fingerprint)) {
+                LOG.info("ArchUnit version, rules, import options or class path changed, discarding {}", file);
+                Files.delete(file);
+                return null;
+            }
+            return snapshot;
+        } catch (IOException e) {
+            LOG.warn("Could not read the import cache {}, importing all classes", file, e);
+            return null;
+        }
+    }
+
+    private static Path snapshotFile() {
+        return Paths.get(ArchConfiguration.get().getPropertyOrDefault(DIRECTORY_PROPERTY, "target/archunit-cache"))
+            .resolve(SNAPSHOT_FILE);
+    }
+
+    private static String archUnitVersion() {
+        String version = ArchConfiguration.class.getPackage().getImplementationVersion();
+        return version != null ? version : "unknown";
+    }
+
+    // Everything besides the imported classes that can change the outcome of the rules
+    private static String fingerprint(String rootPackage, List<ImportOption> importOptions) {
+        return fingerprint(rootPackage, importOptions, ruleClassFiles(), archUnitProperties(), classPathJars());
+    }
+
+    static String fingerprint(String rootPackage, List<ImportOption> importOptions, List<Path> ruleClassFiles,
+                              byte[] archUnitProperties, List<String> classPathJars) {
+        MessageDigest digest = ClassFileSnapshot.newDigest();
+        digest.update(rootPackage.getBytes(StandardCharsets.UTF_8));
+        importOptions.stream()
+            .map(option -> option.getClass().getName())
+            .sorted()
+            .forEach(name -> digest.update(name.getBytes(StandardCharsets.UTF_8)));
+        for (Path file : ruleClassFiles) {
+            digest.update(file.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+            try {
+                digest.update(Files.readAllBytes(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the rule class " + file, e);
+            }
+        }
+        digest.update(archUnitProperties);
+        // Dependencies resolved from jars (e.g. whether a port is an interface) can change with a library version
+        classPathJars.stream().sorted().forEach(path -> {
+            digest.update(path.getBytes(StandardCharsets.UTF_8));
+            try {
+                Path jar = Paths.get(URI.create(path));
+                digest.update(Long.toString(Files.size(jar)).getBytes(StandardCharsets.UTF_8));
+                digest.update(Long.toString(Files.getLastModifiedTime(jar).toMillis()).getBytes(StandardCharsets.UTF_8));
+            } catch (IOException | IllegalArgumentException e) {
+                // Not a local jar, its name is all we can take into account
+            }
+        });
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // The class files next to the suites, rules packaged in a jar are covered by the class path jars
+    private static List<Path> ruleClassFiles() {
+        URL ruleClass = SharedClassImport.class.getResource(SharedClassImport.class.getSimpleName() + ".class");
+        if (ruleClass == null || !"file".equals(ruleClass.getProtocol())) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> files = Files.list(Paths.get(ruleClass.toURI()).getParent())) {
+            return files.filter(file -> file.toString().endsWith(".class")).sorted().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the rule classes", e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] archUnitProperties() {
+        try (InputStream properties = ImportCache.class.getClassLoader()
+            .getResourceAsStream(ArchConfiguration.ARCHUNIT_PROPERTIES_RESOURCE_NAME)) {
+            return properties != null ? properties.readAllBytes() : new byte[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + ArchConfiguration.ARCHUNIT_PROPERTIES_RESOURCE_NAME, e);
+        }
+    }
+
+    private static List<String> classPathJars() {
+        return Locations.inClassPath().stream()
+            .filter(Location::isJar)
+            .map(location -> location.asURI().getSchemeSpecificPart())
+            .map(path -> path.substring(0, path.indexOf("!/") < 0 ? path.length() : path.indexOf("!/")))
+            .collect(Collectors.toList());
+    }
+}
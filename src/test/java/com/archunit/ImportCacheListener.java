@@ -0,0 +1,54 @@
+package com.archunit;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records which suites passed and hands them to the {@link ImportCache} once the test plan finished.
+ * Registered through {@code META-INF/services/org.junit.platform.launcher.TestExecutionListener}.
+ */
+public class ImportCacheListener implements TestExecutionListener {
+
+    private static final String ARCHUNIT_ENGINE = "archunit";
+    private static final String CLASS_SEGMENT = "class";
+
+    private final Set<String> passedSuites = ConcurrentHashMap.newKeySet();
+    private final Set<String> failedSuites = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        suiteOf(testIdentifier).ifPresent(suite -> {
+            if (testExecutionResult.getStatus() == TestExecutionResult.Status.SUCCESSFUL) {
+                passedSuites.add(suite);
+            } else {
+                failedSuites.add(suite);
+            }
+        });
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (ImportCache.isEnabled()) {
+            ImportCache.commit(passedSuites, failedSuites);
+        }
+    }
+
+    // Suites are the top level classes of the ArchUnit engine, rules of included ArchTests belong to their suite
+    static Optional<String> suiteOf(TestIdentifier testIdentifier) {
+        List<UniqueId.Segment> segments = UniqueId.parse(testIdentifier.getUniqueId()).getSegments();
+        if (segments.size() < 2
+            || !ARCHUNIT_ENGINE.equals(segments.get(0).getValue())
+            || !CLASS_SEGMENT.equals(segments.get(1).getType())) {
+            return Optional.empty();
+        }
+        return Optional.of(segments.get(1).getValue());
+    }
+}
@@ -0,0 +1,106 @@
+package com.archunit;
+
+import com.tngtech.archunit.core.importer.ImportOption;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ImportCacheTest {
+
+    private static final List<ImportOption> OPTIONS = List.of(new ImportOption.DoNotIncludeTests());
+    private static final byte[] PROPERTIES = "hexagonal.cache.enabled=true\n".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void fingerprint_is_stable_for_the_same_inputs() throws IOException {
+        Path rule = rule("CoreDomainArchitectureTest.class");
+        List<String> jars = List.of(jar("archunit.jar").toUri().toString());
+
+        assertEquals(ImportCache.fingerprint("shop", OPTIONS, List.of(rule), PROPERTIES, jars),
+            ImportCache.fingerprint("shop", OPTIONS, List.of(rule), PROPERTIES, jars));
+    }
+
+    @Test
+    void fingerprint_changes_with_archunit_properties() throws IOException {
+        List<Path> rules = List.of(rule("CoreDomainArchitectureTest.class"));
+
+        assertNotEquals(ImportCache.fingerprint("shop", OPTIONS, rules, PROPERTIES, List.of()),
+            ImportCache.fingerprint("shop", OPTIONS, rules,
+                "hexagonal.cache.enabled=true\nhexagonal.fused.enabled=false\n".getBytes(StandardCharsets.UTF_8), List.of()));
+    }
+
+    @Test
+    void fingerprint_changes_with_a_class_path_jar() throws IOException {
+        Path jar = jar("spring-context.jar");
+        List<String> jars = List.of(jar.toUri().toString());
+        String before = ImportCache.fingerprint("shop", OPTIONS, List.of(), PROPERTIES, jars);
+
+        Files.write(jar, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+        String grown = ImportCache.fingerprint("shop", OPTIONS, List.of(), PROPERTIES, jars);
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 1000));
+        String touched = ImportCache.fingerprint("shop", OPTIONS, List.of(), PROPERTIES, jars);
+
+        assertNotEquals(before, grown);
+        assertNotEquals(grown, touched);
+        assertNotEquals(before, ImportCache.fingerprint("shop", OPTIONS, List.of(), PROPERTIES,
+            List.of(jar.toUri().toString(), jar("spring-beans.jar").toUri().toString())));
+    }
+
+    @Test
+    void fingerprint_changes_with_the_import_options() {
+        assertNotEquals(ImportCache.fingerprint("shop", OPTIONS, List.of(), PROPERTIES, List.of()),
+            ImportCache.fingerprint("shop", List.of(new ImportOption.DoNotIncludeTests(), new ImportOption.DoNotIncludeJars()),
+                List.of(), PROPERTIES, List.of()));
+    }
+
+    @Test
+    void fingerprint_changes_with_the_rules() throws IOException {
+        Path rule = rule("CoreDomainArchitectureTest.class");
+        String before = ImportCache.fingerprint("shop", OPTIONS, List.of(rule), PROPERTIES, List.of());
+
+        Files.write(rule, new byte[]{4}, StandardOpenOption.APPEND);
+
+        assertNotEquals(before, ImportCache.fingerprint("shop", OPTIONS, List.of(rule), PROPERTIES, List.of()));
+    }
+
+    @Test
+    void discards_a_snapshot_with_another_fingerprint() throws IOException {
+        Path file = directory.resolve("import-snapshot.bin");
+        ClassFileSnapshot snapshot = ClassFileSnapshotTest.snapshot(
+            Map.of("/classes/shop/core/Order.class", ClassFileSnapshotTest.state(120, "shop.core.Order")), Set.of("shop.CoreTest"));
+        snapshot.write(file);
+
+        assertNotNull(ImportCache.readPrevious(file, "1.2.1", "fingerprint"));
+        assertNull(ImportCache.readPrevious(file, "1.2.1", "other fingerprint"));
+        assertFalse(Files.exists(file));
+
+        snapshot.write(file);
+        assertNull(ImportCache.readPrevious(file, "1.3.0", "fingerprint"));
+        assertFalse(Files.exists(file));
+    }
+
+    private Path rule(String name) throws IOException {
+        return Files.write(directory.resolve(name), new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+    }
+
+    private Path jar(String name) throws IOException {
+        return Files.write(directory.resolve(name), new byte[]{'P', 'K', 3, 4});
+    }
+}
@@ -3,44 +3,55 @@ package com.archunit;
 import com.tngtech.archunit.core.importer.ImportOption;
 import com.tngtech.archunit.junit.AnalyzeClasses;
 import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.junit.ArchTests;
 import com.tngtech.archunit.lang.ArchRule;
 
+import static com.archunit.ClassIndex.among;
+import static com.archunit.ClassIndex.annotatedWith;
+import static com.archunit.PackagePatterns.resideInAPackage;
+import static com.archunit.PackagePatterns.resideInAnyPackage;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.*;
 
 @AnalyzeClasses(
-    packages = "com",
+    locations = SharedClassImport.ApplicationLocations.class,
     importOptions = {
         ImportOption.DoNotIncludeTests.class,
         ImportOption.DoNotIncludeJars.class,
-        ImportOption.DoNotIncludeArchives.class
+        ImportOption.DoNotIncludeArchives.class,
+        SharedClassImport.TrackImports.class
     }
 )
 public class InfrastructureArchitectureTest {
+    @ArchTest
+    static final ArchTests shared_class_import = ArchTests.in(SharedClassImport.class);
+
+    private static final SuiteRules SUITE = new SuiteRules(InfrastructureArchitectureTest.class);
+
     @ArchTest
     static final ArchRule documentation_controller_should_be_in_infrastructure =
-        classes()
+        SUITE.rule(classes()
             .that().haveSimpleName("DocumentationController")
             .should().resideInAPackage("..infrastructure..")
             .allowEmptyShould(true)
-            .because("DocumentationController is a configuration/utility class and belongs in infrastructure layer");
+            .because("DocumentationController is a configuration/utility class and belongs in infrastructure layer"));
 
     @ArchTest
     static final ArchRule configuration_classes_that_create_core_beans_should_not_be_in_infrastructure_config =
-        noClasses()
-            .that().resideInAPackage("..infrastructure.config..")
-            .and().areAnnotatedWith("org.springframework.context.annotation.Configuration")
-            .should().dependOnClassesThat()
-            .resideInAPackage("..core..")
-            .allowEmptyShould(true)
-            .because("Configuration classes that create core beans should be at application root level or within core domain config, not in infrastructure/config. Valid locations: root package or core.{domain}.config");
+        SUITE.rule(among(annotatedWith("org.springframework.context.annotation.Configuration"),
+            noClasses()
+                .that(resideInAPackage("..infrastructure.config.."))
+                .and().areAnnotatedWith("org.springframework.context.annotation.Configuration")
+                .should().dependOnClassesThat(resideInAPackage("..core.."))
+                .allowEmptyShould(true)
+                .because("Configuration classes that create core beans should be at application root level or within core domain config, not in infrastructure/config. Valid locations: root package or core.{domain}.config")));
 
     @ArchTest
     static final ArchRule infrastructure_config_should_only_contain_infrastructure_concerns =
-        classes()
-            .that().resideInAPackage("..infrastructure.config..")
-            .and().areAnnotatedWith("org.springframework.context.annotation.Configuration")
-            .should().onlyDependOnClassesThat()
-            .resideInAnyPackage("java..", "javax..", "jakarta..", "org.springframework..", "..infrastructure..")
-            .allowEmptyShould(true)
-            .because("Infrastructure config should only configure infrastructure concerns, not core domain");
+        SUITE.rule(among(annotatedWith("org.springframework.context.annotation.Configuration"),
+            classes()
+                .that(resideInAPackage("..infrastructure.config.."))
+                .and().areAnnotatedWith("org.springframework.context.annotation.Configuration")
+                .should().onlyDependOnClassesThat(resideInAnyPackage("java..", "javax..", "jakarta..", "org.springframework..", "..infrastructure.."))
+                .allowEmptyShould(true)
+                .because("Infrastructure config should only configure infrastructure concerns, not core domain")));
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.archunit;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Hexagonal layers as {@code LayeredArchitectureTest} defines them: the packages matching {@code ..core..},
+ * {@code ..adapters..} or {@code ..infrastructure..}, and {@link #ROOT} for classes in none of them.
+ *
+ * The layers are {@link PackagePatterns} selectors, so a package is classified once together with all other package
+ * identifiers of the suites, and a class costs one bit test per layer. A package nested in two layers
+ * (e.g. {@code ..adapters.core..}) belongs to both.
+ */
+enum Layer {
+    CORE("..core.."),
+    ADAPTERS("..adapters.."),
+    INFRASTRUCTURE("..infrastructure.."),
+    ROOT;
+
+    private static final long[] ANY_LAYER = PackagePatterns.selectorOf("..core..", "..adapters..", "..infrastructure..");
+
+    private final long[] selector;
+
+    Layer(String... packageIdentifiers) {
+        this.selector = packageIdentifiers.length == 0 ? null : PackagePatterns.selectorOf(packageIdentifiers);
+    }
+
+    boolean contains(JavaClass javaClass) {
+        return containsPackage(javaClass.getPackageName());
+    }
+
+    boolean containsPackage(String packageName) {
+        return matches(PackagePatterns.classify(packageName));
+    }
+
+    // For a package mask of PackagePatterns.classify(..)
+    boolean matches(long[] mask) {
+        return this == ROOT ? !PackagePatterns.matches(mask, ANY_LAYER) : PackagePatterns.matches(mask, selector);
+    }
+
+    // Layers with at least one class, in a single pass over the classes
+    static Set<Layer> presentIn(Iterable<JavaClass> classes) {
+        EnumSet<Layer> result = EnumSet.noneOf(Layer.class);
+        for (JavaClass javaClass : classes) {
+            addLayersOf(javaClass.getPackageName(), result);
+        }
+        return result;
+    }
+
+    // Layers of the whole application, also if the ImportCache only imported the classes affected by a change
+    static Set<Layer> presentInApplication(Iterable<JavaClass> classes) {
+        Set<String> applicationPackages = ImportCache.applicationPackages();
+        return applicationPackages != null ? presentInPackages(applicationPackages) : presentIn(classes);
+    }
+
+    static Set<Layer> presentInPackages(Iterable<String> packageNames) {
+        EnumSet<Layer> result = EnumSet.noneOf(Layer.class);
+        packageNames.forEach(packageName -> addLayersOf(packageName, result));
+        return result;
+    }
+
+    private static void addLayersOf(String packageName, Set<Layer> layers) {
+        long[] mask = PackagePatterns.classify(packageName);
+        for (Layer layer : values()) {
+            if (layer.matches(mask)) {
+                layers.add(layer);
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.archunit;
 import com.tngtech.archunit.core.importer.ImportOption;
 import com.tngtech.archunit.junit.AnalyzeClasses;
 import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.junit.ArchTests;
 import com.tngtech.archunit.lang.ArchRule;
 import com.tngtech.archunit.core.domain.JavaClass;
 import com.tngtech.archunit.core.domain.Dependency;
@@ -10,120 +11,190 @@ import com.tngtech.archunit.core.domain.JavaClasses;
 import com.tngtech.archunit.lang.ArchCondition;
 import com.tngtech.archunit.lang.ConditionEvents;
 import com.tngtech.archunit.lang.SimpleConditionEvent;
+import com.tngtech.archunit.library.Architectures.LayeredArchitecture;
 
+import java.util.Collection;
+import java.util.Set;
+
+import static com.archunit.PackagePatterns.layer;
+import static com.archunit.PackagePatterns.resideInAPackage;
+import static com.archunit.PackagePatterns.resideOutsideOfPackages;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.noClasses;
 import static com.tngtech.archunit.library.Architectures.layeredArchitecture;
 import static com.tngtech.archunit.base.DescribedPredicate.describe;
 
 @AnalyzeClasses(
-    packages = "com",
+    locations = SharedClassImport.ApplicationLocations.class,
     importOptions = {
         ImportOption.DoNotIncludeTests.class,
         ImportOption.DoNotIncludeJars.class,
-        ImportOption.DoNotIncludeArchives.class
+        ImportOption.DoNotIncludeArchives.class,
+        SharedClassImport.TrackImports.class
     }
 )
 public class LayeredArchitectureTest {
+    @ArchTest
+    static final ArchTests shared_class_import = ArchTests.in(SharedClassImport.class);
+
+    private static final SuiteRules SUITE = new SuiteRules(LayeredArchitectureTest.class);
+
     @ArchTest
     static final ArchRule spring_boot_application_should_be_in_root =
-        classes()
+        SUITE.rule(classes()
             .that().areAnnotatedWith("org.springframework.boot.autoconfigure.SpringBootApplication")
             .should().resideOutsideOfPackages("..core..", "..adapters..", "..infrastructure..")
             .allowEmptyShould(true)
-            .because("@SpringBootApplication class must exist and be in root package (e.g., com.x.y.z.team.nameapp) but outside hexagonal architecture layers");
+            .because("@SpringBootApplication class must exist and be in root package (e.g., com.x.y.z.team.nameapp) but outside hexagonal architecture layers"));
 
     @ArchTest
     static void hexagonal_architecture_is_respected(JavaClasses classes) {
-        // Check if we have classes in both core and adapters layers
-        boolean hasCoreClasses = classes.stream().anyMatch(javaClass ->
-            javaClass.getPackageName().contains(".core."));
-        boolean hasAdapterClasses = classes.stream().anyMatch(javaClass ->
-            javaClass.getPackageName().contains(".adapters."));
-        boolean hasInfrastructureClasses = classes.stream().anyMatch(javaClass ->
-            javaClass.getPackageName().contains(".infrastructure."));
+        // Check if the application has classes in both core and adapters layers, not only the classes imported
+        Set<Layer> layers = Layer.presentInApplication(classes);
+        boolean hasCoreClasses = layers.contains(Layer.CORE);
+        boolean hasAdapterClasses = layers.contains(Layer.ADAPTERS);
+        boolean hasInfrastructureClasses = layers.contains(Layer.INFRASTRUCTURE);
 
         // Only apply layered architecture rules if we have classes in at least two layers
         if ((hasCoreClasses && hasAdapterClasses) ||
             (hasCoreClasses && hasInfrastructureClasses) ||
             (hasAdapterClasses && hasInfrastructureClasses)) {
-            layeredArchitecture()
-                .consideringAllDependencies()
-                .optionalLayer("Core").definedBy("..core..")
-                .optionalLayer("Adapters").definedBy("..adapters..")
-                .optionalLayer("Infrastructure").definedBy("..infrastructure..")
-                .whereLayer("Core").mayOnlyBeAccessedByLayers("Adapters", "Infrastructure")
-                .whereLayer("Adapters").mayNotBeAccessedByAnyLayer()
-                .ignoreDependency(
-                    describe("Application root classes", clazz -> !clazz.getPackageName().contains(".core.") && !clazz.getPackageName().contains(".adapters.") && !clazz.getPackageName().contains(".infrastructure.")),
-                    describe("Core classes", clazz -> clazz.getPackageName().contains(".core."))
-                )
-                .check(classes);
+            SUITE.aggregating(PackageGraph.condensed(hexagonalLayers(), LayeredArchitectureTest::isAccessRestricted,
+                LayeredArchitectureTest::hexagonalLayerViolations)).check(classes);
+        }
+    }
+
+    private static final long[] RESTRICTED = PackagePatterns.selectorOf("..core..", "..adapters..");
+
+    // Packages of the layers hexagonalLayers() restricts access to
+    static boolean isAccessRestricted(String packageName) {
+        return PackagePatterns.matches(PackagePatterns.classify(packageName), RESTRICTED);
+    }
+
+    // Bits of layersOf(..), one per layer of hexagonalLayers()
+    private static final int IN_CORE = 1;
+    private static final int IN_ADAPTERS = 2;
+    private static final int IN_INFRASTRUCTURE = 4;
+
+    // hexagonalLayers() for a dependency between two packages: the number of layer access rules it violates
+    static int hexagonalLayerViolations(String originPackage, String targetPackage) {
+        return hexagonalLayerViolations(layersOf(originPackage), layersOf(targetPackage));
+    }
+
+    // The same for packages classified once by layersOf(..), e.g. per package of a whole class graph
+    static int hexagonalLayerViolations(int origin, int target) {
+        // Every layer may access the core, and the dependencies of application root classes on it are ignored
+        if ((target & IN_CORE) != 0 && origin == 0) {
+            return 0;
         }
+        return (target & IN_ADAPTERS) != 0 && (origin & IN_ADAPTERS) == 0 ? 1 : 0;
+    }
+
+    static int layersOf(String packageName) {
+        long[] mask = PackagePatterns.classify(packageName);
+        return (Layer.CORE.matches(mask) ? IN_CORE : 0)
+            | (Layer.ADAPTERS.matches(mask) ? IN_ADAPTERS : 0)
+            | (Layer.INFRASTRUCTURE.matches(mask) ? IN_INFRASTRUCTURE : 0);
+    }
+
+    // Shared with the scan of the compact class graph in PackageDependencyScanTest
+    static LayeredArchitecture hexagonalLayers() {
+        return layeredArchitecture()
+            .consideringAllDependencies()
+            .optionalLayer("Core").definedBy(layer("..core.."))
+            .optionalLayer("Adapters").definedBy(layer("..adapters.."))
+            .optionalLayer("Infrastructure").definedBy(layer("..infrastructure.."))
+            .whereLayer("Core").mayOnlyBeAccessedByLayers("Adapters", "Infrastructure")
+            .whereLayer("Adapters").mayNotBeAccessedByAnyLayer()
+            .ignoreDependency(
+                describe("Application root classes", Layer.ROOT::contains),
+                describe("Core classes", Layer.CORE::contains)
+            );
     }
 
     @ArchTest
     static final ArchRule adapters_should_depend_on_core =
-        classes()
-            .that().resideInAPackage("..adapters..")
-            .should().dependOnClassesThat()
-            .resideInAPackage("..core..")
-            .orShould().dependOnClassesThat()
-            .resideOutsideOfPackages("..adapters..", "..infrastructure..")
-            .allowEmptyShould(true);
+        SUITE.rule(classes()
+            .that(resideInAPackage("..adapters.."))
+            .should().dependOnClassesThat(resideInAPackage("..core.."))
+            .orShould().dependOnClassesThat(resideOutsideOfPackages("..adapters..", "..infrastructure.."))
+            .allowEmptyShould(true));
 
+    // The adapter type matrix aggregates over all classes, so it is never evaluated in chunks
     @ArchTest
     static final ArchRule adapters_should_not_depend_on_other_adapter_types =
-        classes()
-            .that().resideInAPackage("..adapters..")
+        AdapterTypeMatrix.isEnabled() ? SUITE.aggregating(adapterTypeRule()) : SUITE.rule(adapterTypeRule());
+
+    private static ArchRule adapterTypeRule() {
+        return classes()
+            .that(resideInAPackage("..adapters.."))
             .should(notDependOnOtherAdapterTypes())
             .allowEmptyShould(true)
             .because("Adapters should not depend on other adapter types - each adapter type (api, database, messaging, external, etc.) should only depend on classes within their own adapter type, core, infrastructure, and standard libraries");
+    }
 
     // Custom condition to check cross-adapter dependencies
     private static ArchCondition<JavaClass> notDependOnOtherAdapterTypes() {
         return new ArchCondition<JavaClass>("not depend on other adapter types") {
+            // The rule is shared by all suites and threads, so every evaluation keeps its state to itself
+            private final ThreadLocal<AdapterTypeEvaluation> evaluations = new ThreadLocal<>();
+
+            @Override
+            public void init(Collection<JavaClass> allObjectsToTest) {
+                evaluations.set(new AdapterTypeEvaluation());
+            }
+
             @Override
             public void check(JavaClass javaClass, ConditionEvents events) {
-                String sourceAdapterType = extractAdapterType(javaClass.getPackageName());
+                AdapterTypeEvaluation evaluation = evaluations.get();
+                evaluation.checked++;
+                int sourceAdapterType = AdapterTypes.of(javaClass.getPackageName());
+                if (sourceAdapterType == AdapterTypes.NONE) {
+                    return;
+                }
 
                 for (Dependency dependency : javaClass.getDirectDependenciesFromSelf()) {
                     JavaClass targetClass = dependency.getTargetClass();
-                    String targetPackage = targetClass.getPackageName();
 
                     // Skip if target is not in adapters package
-                    if (!targetPackage.contains(".adapters.")) {
-                        continue;
-                    }
-
-                    String targetAdapterType = extractAdapterType(targetPackage);
-
-                    // Allow same adapter type dependencies
-                    if (sourceAdapterType != null && sourceAdapterType.equals(targetAdapterType)) {
+                    if (!Layer.ADAPTERS.contains(targetClass)) {
                         continue;
                     }
 
                     // Violation: different adapter types
-                    if (sourceAdapterType != null && targetAdapterType != null &&
-                        !sourceAdapterType.equals(targetAdapterType)) {
+                    int targetAdapterType = AdapterTypes.of(targetClass.getPackageName());
+                    if (targetAdapterType != AdapterTypes.NONE && targetAdapterType != sourceAdapterType) {
+                        if (evaluation.matrix != null) {
+                            evaluation.matrix.add(sourceAdapterType, javaClass.getName(), targetAdapterType, targetClass.getName());
+                            continue;
+                        }
                         events.add(SimpleConditionEvent.violated(dependency,
                             String.format("Class %s in adapter type '%s' depends on class %s in adapter type '%s'",
-                                javaClass.getName(), sourceAdapterType,
-                                targetClass.getName(), targetAdapterType)));
+                                javaClass.getName(), AdapterTypes.name(sourceAdapterType),
+                                targetClass.getName(), AdapterTypes.name(targetAdapterType))));
                     }
                 }
             }
+
+            @Override
+            public void finish(ConditionEvents events) {
+                AdapterTypeEvaluation evaluation = evaluations.get();
+                evaluations.remove();
+                if (evaluation.matrix != null) {
+                    evaluation.matrix.report(events);
+                }
+                if (evaluation.event != null) {
+                    ArchitectureEvents.conditionFinished(evaluation.event, evaluation.checked, events.getViolating().size());
+                }
+            }
         };
     }
 
-    // Helper method to extract adapter type from package name
-    private static String extractAdapterType(String packageName) {
-        if (!packageName.contains(".adapters.")) return null;
-
-        String afterAdapters = packageName.substring(packageName.indexOf(".adapters.") + 10);
-        int dotIndex = afterAdapters.indexOf('.');
-
-        return dotIndex > 0 ? afterAdapters.substring(0, dotIndex) : afterAdapters;
+    // State of one evaluation of notDependOnOtherAdapterTypes(), from init to finish
+    private static final class AdapterTypeEvaluation {
+        final AdapterTypeMatrix matrix = AdapterTypeMatrix.isEnabled() ? AdapterTypeMatrix.create() : null;
+        final ArchitectureEvents.ConditionEvaluation event = ArchitectureEvents.conditionStarted("notDependOnOtherAdapterTypes");
+        int checked;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package com.archunit;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.lang.ArchRule;
+
+/**
+ * A rule evaluating the rule it decorates on the classes that can violate it only, like the rules of
+ * {@link ClassIndex} and {@link FusedRules}. Modes evaluating the classes in chunks narrow once on all classes and
+ * chunk the narrowed classes for the decorated rule, so indexes and visits are built once per import, not per chunk.
+ */
+interface NarrowingRule extends ArchRule {
+
+    // The classes the decorated rule is evaluated on, null if none of the classes can violate it
+    JavaClasses narrow(JavaClasses classes);
+
+    ArchRule decorated();
+}
@@ -0,0 +1,166 @@
+package com.archunit;
+
+import com.tngtech.archunit.ArchConfiguration;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes violations as newline delimited JSON, one file per suite under {@code target/archunit-violations} (set with
+ * {@code hexagonal.violations.sink.directory}) and one line per violation:
+ * <pre>{"suite":"LayeredArchitectureTest","rule":"classes that ...","message":"Class ..."}</pre>
+ * The {@link ViolationSinkListener} deletes the files of all suites when the test plan starts, so a suite without
+ * violations leaves no file behind; without it the first rule of a suite in a JVM starts the file over. The rules of
+ * a suite share one writer for its file, so rules evaluated in parallel never interleave their lines.
+ */
+final class NdjsonViolationSink implements ViolationSink {
+
+    static final String DIRECTORY_PROPERTY = "hexagonal.violations.sink.directory";
+
+    private static final Set<Path> STARTED = new HashSet<>();
+    // Files with at least one rule writing to them
+    private static final Map<Path, SuiteFile> OPEN = new HashMap<>();
+
+    @Override
+    public RuleViolations open(String suite, String rule) {
+        return new Lines(suiteFile(fileOf(suite)), "{\"suite\":" + quote(suite) + ",\"rule\":" + quote(rule) + ",\"message\":");
+    }
+
+    // Deletes the files of the suites, before any of their rules is evaluated
+    static synchronized void reset(Collection<String> suites) {
+        for (String suite : suites) {
+            Path file = fileOf(suite);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not delete " + file, e);
+            }
+            STARTED.add(file.toAbsolutePath());
+        }
+    }
+
+    private static Path fileOf(String suite) {
+        return Paths.get(ArchConfiguration.get().getPropertyOrDefault(DIRECTORY_PROPERTY, "target/archunit-violations"))
+            .resolve(suite + ".ndjson");
+    }
+
+    private static synchronized SuiteFile suiteFile(Path file) {
+        Path key = file.toAbsolutePath();
+        SuiteFile suiteFile = OPEN.get(key);
+        if (suiteFile == null) {
+            try {
+                Files.createDirectories(file.getParent());
+                suiteFile = new SuiteFile(file, Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    STARTED.add(key) ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open " + file, e);
+            }
+            OPEN.put(key, suiteFile);
+        }
+        suiteFile.rules++;
+        return suiteFile;
+    }
+
+    // Closes the file once the last rule writing to it is done
+    private static synchronized void release(SuiteFile suiteFile) {
+        if (--suiteFile.rules == 0) {
+            OPEN.remove(suiteFile.file.toAbsolutePath());
+            suiteFile.close();
+        }
+    }
+
+    static String quote(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static final class SuiteFile {
+        private final Path file;
+        private final BufferedWriter writer;
+        // Guarded by NdjsonViolationSink.class
+        private int rules;
+
+        SuiteFile(Path file, BufferedWriter writer) {
+            this.file = file;
+            this.writer = writer;
+        }
+
+        synchronized void write(String line) {
+            try {
+                writer.write(line);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write " + file, e);
+            }
+        }
+
+        synchronized void close() {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write " + file, e);
+            }
+        }
+    }
+
+    private static final class Lines implements RuleViolations {
+        private final SuiteFile suiteFile;
+        private final String prefix;
+
+        Lines(SuiteFile suiteFile, String prefix) {
+            this.suiteFile = suiteFile;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public void add(String message) {
+            suiteFile.write(prefix + quote(message) + "}\n");
+        }
+
+        @Override
+        public String location() {
+            return suiteFile.file.toString();
+        }
+
+        @Override
+        public void close() {
+            release(suiteFile);
+        }
+    }
+}
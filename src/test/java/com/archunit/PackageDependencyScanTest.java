@@ -0,0 +1,181 @@
+package com.archunit;
+
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.core.domain.PackageMatcher;
+import com.tngtech.archunit.core.domain.PackageMatchers;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvent;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.lang.Priority;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Fast lane for the package dependency rules of {@link CoreDomainArchitectureTest} and the layer rules of
+ * {@link LayeredArchitectureTest}: instead of importing the classes it reads the constant pools of the class files
+ * below the application root into a {@link CompactClassGraph}, and reports violations in ArchUnit's format under the
+ * very same rule descriptions. Enabled with {@code hexagonal.fastscan.enabled=true}.
+ *
+ * The constant pool lists every class a class refers to, so the scan sees a superset of the dependencies ArchUnit
+ * resolves. It reports one violation per referenced class rather than per field, method or call, without a source
+ * location. The layer rules are the ones of {@link LayeredArchitectureTest#hexagonalLayerViolations}.
+ */
+@EnabledIf("isEnabled")
+public class PackageDependencyScanTest {
+
+    static final String ENABLED_PROPERTY = "hexagonal.fastscan.enabled";
+    private static final PackageMatcher CORE = PackageMatcher.of("..core..");
+
+    private static CompactClassGraph graph;
+
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(ArchConfiguration.get().getPropertyOrDefault(ENABLED_PROPERTY, "false"));
+    }
+
+    @TestFactory
+    Stream<DynamicTest> core_package_dependencies() {
+        CompactClassGraph graph = graph();
+        return Stream.of(
+            scan("core_should_not_depend_on_adapters", CoreDomainArchitectureTest.core_should_not_depend_on_adapters,
+                graph, CoreDomainArchitectureTest.ADAPTER_PACKAGES),
+            scan("core_should_not_depend_on_infrastructure_config_or_util",
+                CoreDomainArchitectureTest.core_should_not_depend_on_infrastructure_config_or_util,
+                graph, CoreDomainArchitectureTest.INFRASTRUCTURE_CONFIG_OR_UTIL_PACKAGES),
+            scan("core_should_not_depend_on_jpa", CoreDomainArchitectureTest.core_should_not_depend_on_jpa,
+                graph, CoreDomainArchitectureTest.JPA_PACKAGES),
+            scan("core_should_not_depend_on_jackson", CoreDomainArchitectureTest.core_should_not_depend_on_jackson,
+                graph, CoreDomainArchitectureTest.JACKSON_PACKAGES),
+            scan("core_should_not_depend_on_web_frameworks", CoreDomainArchitectureTest.core_should_not_depend_on_web_frameworks,
+                graph, CoreDomainArchitectureTest.WEB_FRAMEWORK_PACKAGES));
+    }
+
+    @TestFactory
+    Stream<DynamicTest> layer_dependencies() {
+        CompactClassGraph graph = graph();
+        return Stream.of(
+            DynamicTest.dynamicTest("hexagonal_architecture_is_respected",
+                () -> ArchRule.Assertions.assertNoViolation(evaluateLayers(graph))),
+            DynamicTest.dynamicTest("adapters_should_not_depend_on_other_adapter_types",
+                () -> ArchRule.Assertions.assertNoViolation(evaluateAdapterTypes(graph))));
+    }
+
+    private static DynamicTest scan(String name, ArchRule rule, CompactClassGraph graph, String... forbiddenPackages) {
+        return DynamicTest.dynamicTest(name,
+            () -> ArchRule.Assertions.assertNoViolation(evaluate(rule, graph, forbiddenPackages)));
+    }
+
+    static EvaluationResult evaluate(ArchRule rule, CompactClassGraph graph, String... forbiddenPackages) {
+        BitSet core = graph.packages(CORE::matches);
+        BitSet forbidden = graph.packages(PackageMatchers.of(forbiddenPackages));
+        ConditionEvents events = ConditionEvents.Factory.create();
+        for (int origin = 0; origin < graph.classCount(); origin++) {
+            if (!graph.isIn(origin, core)) {
+                continue;
+            }
+            for (int i = graph.firstDependency(origin); i < graph.endOfDependencies(origin); i++) {
+                if (graph.isIn(graph.dependency(i), forbidden)) {
+                    events.add(violation(graph, origin, graph.dependency(i)));
+                }
+            }
+        }
+        return new EvaluationResult(rule, events, Priority.MEDIUM);
+    }
+
+    // hexagonalLayers() on the graph, with the layer access rules of LayeredArchitectureTest, once per violated rule
+    static EvaluationResult evaluateLayers(CompactClassGraph graph) {
+        ConditionEvents events = ConditionEvents.Factory.create();
+        if (layersPresent(graph) < 2) {
+            return new EvaluationResult(LayeredArchitectureTest.hexagonalLayers(), events, Priority.MEDIUM);
+        }
+        int[] layers = new int[graph.packageCount()];
+        for (int packageId = 0; packageId < layers.length; packageId++) {
+            layers[packageId] = LayeredArchitectureTest.layersOf(graph.nameOfPackage(packageId));
+        }
+        for (int origin = 0; origin < graph.classCount(); origin++) {
+            int originLayers = layers[graph.packageOf(origin)];
+            for (int i = graph.firstDependency(origin); i < graph.endOfDependencies(origin); i++) {
+                int target = graph.dependency(i);
+                // Like ArchUnit's layer checks, only dependencies to the classes read count
+                if (target >= graph.classCount()) {
+                    continue;
+                }
+                int violations = LayeredArchitectureTest.hexagonalLayerViolations(originLayers, layers[graph.packageOf(target)]);
+                for (int violation = 0; violation < violations; violation++) {
+                    events.add(violation(graph, origin, target));
+                }
+            }
+        }
+        return new EvaluationResult(LayeredArchitectureTest.hexagonalLayers(), events, Priority.MEDIUM);
+    }
+
+    static EvaluationResult evaluateAdapterTypes(CompactClassGraph graph) {
+        AdapterTypeMatrix matrix = AdapterTypeMatrix.isEnabled() ? AdapterTypeMatrix.create() : null;
+        ConditionEvents events = ConditionEvents.Factory.create();
+        for (int origin = 0; origin < graph.classCount(); origin++) {
+            int sourceAdapterType = AdapterTypes.of(graph.packageName(origin));
+            if (sourceAdapterType == AdapterTypes.NONE) {
+                continue;
+            }
+            for (int i = graph.firstDependency(origin); i < graph.endOfDependencies(origin); i++) {
+                int target = graph.dependency(i);
+                // An adapter type implies an adapters package
+                int targetAdapterType = AdapterTypes.of(graph.packageName(target));
+                if (targetAdapterType == AdapterTypes.NONE || targetAdapterType == sourceAdapterType) {
+                    continue;
+                }
+                if (matrix != null) {
+                    matrix.add(sourceAdapterType, graph.className(origin), targetAdapterType, graph.className(target));
+                    continue;
+                }
+                events.add(SimpleConditionEvent.violated(graph.className(origin),
+                    String.format("Class %s in adapter type '%s' depends on class %s in adapter type '%s'",
+                        graph.className(origin), AdapterTypes.name(sourceAdapterType),
+                        graph.className(target), AdapterTypes.name(targetAdapterType))));
+            }
+        }
+        if (matrix != null) {
+            matrix.report(events);
+        }
+        return new EvaluationResult(LayeredArchitectureTest.adapters_should_not_depend_on_other_adapter_types, events, Priority.MEDIUM);
+    }
+
+    // Core, adapters and infrastructure with at least one class read, like Layer.presentIn(..)
+    private static int layersPresent(CompactClassGraph graph) {
+        BitSet packages = new BitSet(graph.packageCount());
+        for (int id = 0; id < graph.classCount(); id++) {
+            packages.set(graph.packageOf(id));
+        }
+        Set<Layer> present = EnumSet.noneOf(Layer.class);
+        packages.stream().forEach(packageId -> {
+            for (Layer layer : Layer.values()) {
+                if (layer != Layer.ROOT && layer.containsPackage(graph.nameOfPackage(packageId))) {
+                    present.add(layer);
+                }
+            }
+        });
+        return present.size();
+    }
+
+    private static ConditionEvent violation(CompactClassGraph graph, int origin, int target) {
+        return SimpleConditionEvent.violated(graph.className(origin), String.format("Class <%s> depends on class <%s>",
+            graph.className(origin), graph.className(target)));
+    }
+
+    // Read once for both test factories
+    private static synchronized CompactClassGraph graph() {
+        if (graph == null) {
+            Class<?> suite = CoreDomainArchitectureTest.class;
+            graph = CompactClassGraph.read(
+                ApplicationClassFiles.find(ApplicationRoot.packageName(suite), ApplicationClassFiles.importOptionsOf(suite)));
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,207 @@
+package com.archunit;
+
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.JavaPackage;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.lang.Priority;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Imported classes collapsed into their packages: one edge per pair of packages with a dependency between them,
+ * counting the class dependencies and keeping the first of them as example. Rules deciding by package alone, like the
+ * layers of {@code LayeredArchitectureTest}, are evaluated once per package edge instead of once per class dependency,
+ * and only the edges violating them are drilled down to the class dependencies to report.
+ *
+ * Edges are built from the dependencies to the imported classes, so targets outside the import are left out, like in
+ * ArchUnit's layer checks. Disabled with {@code hexagonal.layers.condensed=false}.
+ */
+final class PackageGraph {
+
+    static final String ENABLED_PROPERTY = "hexagonal.layers.condensed";
+
+    private final Map<JavaPackage, List<JavaClass>> classesByPackage = new IdentityHashMap<>();
+    private final List<Edge> edges = new ArrayList<>();
+
+    private PackageGraph(JavaClasses classes, Predicate<String> targetPackages) {
+        for (JavaClass javaClass : classes) {
+            classesByPackage.computeIfAbsent(javaClass.getPackage(), javaPackage -> new ArrayList<>()).add(javaClass);
+        }
+        // One package per import and name, so packages are compared by identity
+        Map<JavaPackage, Edge> edgesFromOrigin = new IdentityHashMap<>();
+        for (Map.Entry<JavaPackage, List<JavaClass>> targets : classesByPackage.entrySet()) {
+            if (!targetPackages.test(targets.getKey().getName())) {
+                continue;
+            }
+            edgesFromOrigin.clear();
+            for (JavaClass target : targets.getValue()) {
+                for (Dependency dependency : target.getDirectDependenciesToSelf()) {
+                    JavaPackage origin = dependency.getOriginClass().getPackage();
+                    Edge edge = edgesFromOrigin.get(origin);
+                    if (edge == null) {
+                        edge = new Edge(dependency);
+                        edgesFromOrigin.put(origin, edge);
+                        edges.add(edge);
+                    }
+                    edge.count++;
+                }
+            }
+        }
+    }
+
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(ArchConfiguration.get().getPropertyOrDefault(ENABLED_PROPERTY, "true"));
+    }
+
+    // Only the edges to the target packages matter to a rule, the others are left out
+    static PackageGraph of(JavaClasses classes, Predicate<String> targetPackages) {
+        return new PackageGraph(classes, targetPackages);
+    }
+
+    /**
+     * Evaluates a rule on the package graph instead of the classes, reporting under the rule's description.
+     * {@code violations} tells for a dependency between two packages how many times it violates the rule, e.g. once
+     * per layer it must not access; the rule must judge every class dependency between the two packages the same, and
+     * never be violated by a dependency to a package outside {@code targetPackages}.
+     */
+    static ArchRule condensed(ArchRule rule, Predicate<String> targetPackages, ToIntBiFunction<String, String> violations) {
+        return isEnabled() ? new CondensedRule(rule, targetPackages, violations) : rule;
+    }
+
+    List<Edge> edges() {
+        return edges;
+    }
+
+    // The class dependencies the edges were condensed from, reading each target package once
+    Map<Edge, List<Dependency>> dependencies(Collection<Edge> edges) {
+        Map<Edge, List<Dependency>> dependencies = new IdentityHashMap<>();
+        Map<JavaPackage, Map<JavaPackage, Edge>> edgesByTarget = new IdentityHashMap<>();
+        for (Edge edge : edges) {
+            if (edge.count == 1) {
+                dependencies.put(edge, Collections.singletonList(edge.example));
+            } else {
+                dependencies.put(edge, new ArrayList<>(edge.count));
+                edgesByTarget.computeIfAbsent(edge.example.getTargetClass().getPackage(), target -> new IdentityHashMap<>())
+                    .put(edge.example.getOriginClass().getPackage(), edge);
+            }
+        }
+        edgesByTarget.forEach((target, edgesFromOrigin) -> {
+            for (JavaClass targetClass : classesByPackage.get(target)) {
+                for (Dependency dependency : targetClass.getDirectDependenciesToSelf()) {
+                    Edge edge = edgesFromOrigin.get(dependency.getOriginClass().getPackage());
+                    if (edge != null) {
+                        dependencies.get(edge).add(dependency);
+                    }
+                }
+            }
+        });
+        return dependencies;
+    }
+
+    static final class Edge {
+        private final Dependency example;
+        private int count;
+
+        private Edge(Dependency example) {
+            this.example = example;
+        }
+
+        String origin() {
+            return example.getOriginClass().getPackageName();
+        }
+
+        String target() {
+            return example.getTargetClass().getPackageName();
+        }
+
+        int count() {
+            return count;
+        }
+
+        Dependency example() {
+            return example;
+        }
+    }
+
+    private static final class CondensedRule implements ArchRule {
+        private final ArchRule rule;
+        private final Predicate<String> targetPackages;
+        private final ToIntBiFunction<String, String> violations;
+
+        CondensedRule(ArchRule rule, Predicate<String> targetPackages, ToIntBiFunction<String, String> violations) {
+            this.rule = rule;
+            this.targetPackages = targetPackages;
+            this.violations = violations;
+        }
+
+        @Override
+        public void check(JavaClasses classes) {
+            Assertions.check(this, classes);
+        }
+
+        @Override
+        public EvaluationResult evaluate(JavaClasses classes) {
+            ArchitectureEvents.ConditionEvaluation evaluation = ArchitectureEvents.conditionStarted("PackageGraph.condensed");
+            PackageGraph graph = PackageGraph.of(classes, targetPackages);
+            Map<Edge, Integer> violatingEdges = new LinkedHashMap<>();
+            for (Edge edge : graph.edges()) {
+                int violated = violations.applyAsInt(edge.origin(), edge.target());
+                if (violated > 0) {
+                    violatingEdges.put(edge, violated);
+                }
+            }
+            // Drill down to the class dependencies of the violating edges only
+            ConditionEvents events = ConditionEvents.Factory.create();
+            graph.dependencies(violatingEdges.keySet()).forEach((edge, dependencies) -> {
+                for (Dependency dependency : dependencies) {
+                    for (int i = 0; i < violatingEdges.get(edge); i++) {
+                        events.add(SimpleConditionEvent.violated(dependency, dependency.getDescription()));
+                    }
+                }
+            });
+            if (evaluation != null) {
+                ArchitectureEvents.conditionFinished(evaluation, classes.size(), events.getViolating().size());
+            }
+            return new EvaluationResult(rule, events, Priority.MEDIUM);
+        }
+
+        @Override
+        public ArchRule because(String reason) {
+            return new CondensedRule(rule.because(reason), targetPackages, violations);
+        }
+
+        @Override
+        public ArchRule allowEmptyShould(boolean allowEmptyShould) {
+            return new CondensedRule(rule.allowEmptyShould(allowEmptyShould), targetPackages, violations);
+        }
+
+        @Override
+        public ArchRule as(String newDescription) {
+            return new CondensedRule(rule.as(newDescription), targetPackages, violations);
+        }
+
+        @Override
+        public String getDescription() {
+            return rule.getDescription();
+        }
+
+        @Override
+        public String toString() {
+            return rule.toString();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.archunit;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.PackageMatcher;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Package identifiers of all suites, compiled once per run. Every distinct package is classified into all registered
+ * identifiers the first time a rule asks for it, and the result is kept as a bit mask with one bit per identifier;
+ * the predicates below then test a bit instead of matching the package string for every class, rule and dependency.
+ *
+ * Classification uses ArchUnit's own {@link PackageMatcher}, so identifiers mean exactly what they mean in the fluent
+ * API, and the predicates carry the descriptions of their {@code JavaClass.Predicates} counterparts, so the rule
+ * descriptions stay the same.
+ */
+final class PackagePatterns {
+
+    private static final Map<String, Integer> BITS = new HashMap<>();
+    private static volatile PackageMatcher[] matchers = new PackageMatcher[0];
+    private static final Map<String, Classification> PACKAGES = new ConcurrentHashMap<>();
+
+    private PackagePatterns() {
+    }
+
+    static DescribedPredicate<JavaClass> resideInAPackage(String packageIdentifier) {
+        return new ResideInAnyPackage(JavaClass.Predicates.resideInAPackage(packageIdentifier).getDescription(),
+            selectorOf(packageIdentifier));
+    }
+
+    static DescribedPredicate<JavaClass> resideInAnyPackage(String... packageIdentifiers) {
+        return new ResideInAnyPackage(JavaClass.Predicates.resideInAnyPackage(packageIdentifiers).getDescription(),
+            selectorOf(packageIdentifiers));
+    }
+
+    static DescribedPredicate<JavaClass> resideOutsideOfPackages(String... packageIdentifiers) {
+        return DescribedPredicate.not(resideInAnyPackage(packageIdentifiers))
+            .as(JavaClass.Predicates.resideOutsideOfPackages(packageIdentifiers).getDescription());
+    }
+
+    // Described like LayeredArchitecture describes a layer defined by package identifiers
+    static DescribedPredicate<JavaClass> layer(String... packageIdentifiers) {
+        return new ResideInAnyPackage(Arrays.stream(packageIdentifiers).collect(Collectors.joining("', '", "'", "'")),
+            selectorOf(packageIdentifiers));
+    }
+
+    static synchronized long[] selectorOf(String... packageIdentifiers) {
+        int[] bits = new int[packageIdentifiers.length];
+        for (int i = 0; i < packageIdentifiers.length; i++) {
+            bits[i] = BITS.computeIfAbsent(packageIdentifiers[i], identifier -> {
+                PackageMatcher[] registered = Arrays.copyOf(matchers, matchers.length + 1);
+                registered[matchers.length] = PackageMatcher.of(identifier);
+                matchers = registered;
+                return matchers.length - 1;
+            });
+        }
+        long[] selector = new long[words(Arrays.stream(bits).max().orElse(0) + 1)];
+        for (int bit : bits) {
+            selector[bit >>> 6] |= 1L << bit;
+        }
+        return selector;
+    }
+
+    // Identifiers registered after a package was classified (e.g. by a suite loaded later) extend its mask
+    static long[] classify(String packageName) {
+        PackageMatcher[] registered = matchers;
+        Classification classification = PACKAGES.get(packageName);
+        if (classification == null || classification.identifiers < registered.length) {
+            classification = PACKAGES.compute(packageName, (name, previous) -> extend(name, previous, registered));
+        }
+        return classification.mask;
+    }
+
+    // Whether a package with the given mask matches any identifier of the selector
+    static boolean matches(long[] mask, long[] selector) {
+        for (int i = 0; i < selector.length; i++) {
+            if ((mask[i] & selector[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Classification extend(String packageName, Classification previous, PackageMatcher[] registered) {
+        if (previous != null && previous.identifiers >= registered.length) {
+            return previous;
+        }
+        int from = previous == null ? 0 : previous.identifiers;
+        long[] mask = previous == null ? new long[words(registered.length)] : Arrays.copyOf(previous.mask, words(registered.length));
+        for (int bit = from; bit < registered.length; bit++) {
+            if (registered[bit].matches(packageName)) {
+                mask[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return new Classification(registered.length, mask);
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static final class Classification {
+        final int identifiers;
+        final long[] mask;
+
+        Classification(int identifiers, long[] mask) {
+            this.identifiers = identifiers;
+            this.mask = mask;
+        }
+    }
+
+    private static final class ResideInAnyPackage extends DescribedPredicate<JavaClass> {
+        private final long[] selector;
+
+        ResideInAnyPackage(String description, long[] selector) {
+            super(description);
+            this.selector = selector;
+        }
+
+        @Override
+        public boolean test(JavaClass javaClass) {
+            return matches(classify(javaClass.getPackageName()), selector);
+        }
+    }
+}
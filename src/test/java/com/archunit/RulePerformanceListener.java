@@ -0,0 +1,223 @@
+package com.archunit;
+
+import com.tngtech.archunit.ArchConfiguration;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures wall time, CPU time and allocated bytes of every rule of the suites and of the class import, enabled with
+ * {@code hexagonal.perf=true}. Once the test plan finished, every suite gets a {@code <Suite>.json} and a
+ * {@code <Suite>.csv} under {@code target/archunit-perf} (set with {@code hexagonal.perf.directory}), and the slowest
+ * {@code hexagonal.perf.top} rules (default 10) go to the log. Registered like the {@link ImportCacheListener}.
+ *
+ * ArchUnit's engine runs a rule on the thread reporting its start and end, so CPU time and allocations are read for
+ * that thread from the {@link ThreadMXBean}; work handed to other threads only shows in the wall time. The classes
+ * are imported lazily for the first rule needing them - the shared import test every suite declares first - so that
+ * rule is reported as the {@code import}.
+ */
+public class RulePerformanceListener implements TestExecutionListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RulePerformanceListener.class);
+
+    static final String ENABLED_PROPERTY = "hexagonal.perf";
+    static final String DIRECTORY_PROPERTY = "hexagonal.perf.directory";
+    static final String TOP_PROPERTY = "hexagonal.perf.top";
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    // Unmeasured CPU time or allocations
+    private static final long UNKNOWN = -1;
+
+    private final Map<String, Start> started = new ConcurrentHashMap<>();
+    private final List<Measurement> measurements = new ArrayList<>();
+    private volatile boolean enabled;
+
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(ArchConfiguration.get().getPropertyOrDefault(ENABLED_PROPERTY, "false"));
+    }
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        enabled = isEnabled();
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (enabled && testIdentifier.isTest() && ImportCacheListener.suiteOf(testIdentifier).isPresent()) {
+            started.put(testIdentifier.getUniqueId(), new Start());
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        Start start = started.remove(testIdentifier.getUniqueId());
+        if (start == null) {
+            return;
+        }
+        String suite = ImportCacheListener.suiteOf(testIdentifier).orElseThrow();
+        Measurement measurement = start.finish(suite.substring(suite.lastIndexOf('.') + 1),
+            testIdentifier.getDisplayName(), testExecutionResult.getStatus());
+        synchronized (measurements) {
+            measurements.add(measurement);
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        List<Measurement> finished;
+        synchronized (measurements) {
+            finished = new ArrayList<>(measurements);
+            measurements.clear();
+        }
+        if (finished.isEmpty()) {
+            return;
+        }
+        Map<String, List<Measurement>> bySuite = new LinkedHashMap<>();
+        for (Measurement measurement : finished) {
+            bySuite.computeIfAbsent(measurement.suite, suite -> new ArrayList<>()).add(measurement);
+        }
+        Path directory = Paths.get(ArchConfiguration.get().getPropertyOrDefault(DIRECTORY_PROPERTY, "target/archunit-perf"));
+        try {
+            Files.createDirectories(directory);
+            for (Map.Entry<String, List<Measurement>> suite : bySuite.entrySet()) {
+                writeJson(directory.resolve(suite.getKey() + ".json"), suite.getValue());
+                writeCsv(directory.resolve(suite.getKey() + ".csv"), suite.getValue());
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not write the rule timings to {}", directory, e);
+        }
+        LOG.info(summary(finished, Integer.parseInt(ArchConfiguration.get().getPropertyOrDefault(TOP_PROPERTY, "10")), directory));
+    }
+
+    private static void writeJson(Path file, List<Measurement> measurements) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("[\n");
+            for (int i = 0; i < measurements.size(); i++) {
+                Measurement measurement = measurements.get(i);
+                writer.write(String.format(Locale.ROOT,
+                    "  {\"suite\":%s,\"rule\":%s,\"kind\":%s,\"status\":%s,\"classes\":%d,\"wallNanos\":%d,\"cpuNanos\":%d,\"allocatedBytes\":%d}%s%n",
+                    NdjsonViolationSink.quote(measurement.suite), NdjsonViolationSink.quote(measurement.rule),
+                    NdjsonViolationSink.quote(measurement.kind()), NdjsonViolationSink.quote(measurement.status.name()),
+                    measurement.classes, measurement.wallNanos, measurement.cpuNanos, measurement.allocatedBytes,
+                    i + 1 < measurements.size() ? "," : ""));
+            }
+            writer.write("]\n");
+        }
+    }
+
+    private static void writeCsv(Path file, List<Measurement> measurements) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("suite,rule,kind,status,classes,wallNanos,cpuNanos,allocatedBytes\n");
+            for (Measurement measurement : measurements) {
+                writer.write(String.format(Locale.ROOT, "%s,%s,%s,%s,%d,%d,%d,%d%n",
+                    csv(measurement.suite), csv(measurement.rule), measurement.kind(), measurement.status,
+                    measurement.classes, measurement.wallNanos, measurement.cpuNanos, measurement.allocatedBytes));
+            }
+        }
+    }
+
+    private static String csv(String value) {
+        return value.contains(",") || value.contains("\"") || value.contains("\n")
+            ? "\"" + value.replace("\"", "\"\"") + "\""
+            : value;
+    }
+
+    private static String summary(List<Measurement> measurements, int top, Path directory) {
+        List<Measurement> slowest = new ArrayList<>(measurements);
+        slowest.sort(Comparator.comparingLong((Measurement measurement) -> measurement.wallNanos).reversed());
+        StringBuilder summary = new StringBuilder(String.format(Locale.ROOT,
+            "Slowest %d of %d rules on %d classes (wall, CPU, allocated), all in %s:",
+            Math.min(top, slowest.size()), slowest.size(), SharedClassImport.importedClassFiles(), directory));
+        for (Measurement measurement : slowest.subList(0, Math.min(top, slowest.size()))) {
+            summary.append(String.format(Locale.ROOT, "%n%,10.1f ms %13s %12s  %s.%s%s",
+                measurement.wallNanos / 1e6,
+                measurement.cpuNanos == UNKNOWN ? "-" : String.format(Locale.ROOT, "%,.1f ms", measurement.cpuNanos / 1e6),
+                measurement.allocatedBytes == UNKNOWN ? "-" : String.format(Locale.ROOT, "%,.1f MB", measurement.allocatedBytes / 1e6),
+                measurement.suite, measurement.rule, measurement.imported ? " (import)" : ""));
+        }
+        return summary.toString();
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : UNKNOWN;
+    }
+
+    // Allocated by the current thread so far, -1 if the JVM doesn't tell
+    static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getCurrentThreadAllocatedBytes();
+            }
+        }
+        return UNKNOWN;
+    }
+
+    // The counters at the start of a rule, on the thread running it
+    private static final class Start {
+        private final Thread thread = Thread.currentThread();
+        private final int imports = SharedClassImport.imports();
+        private final long cpuTime = cpuTime();
+        private final long allocatedBytes = allocatedBytes();
+        private final long wallTime = System.nanoTime();
+
+        Measurement finish(String suite, String rule, TestExecutionResult.Status status) {
+            long wallNanos = System.nanoTime() - wallTime;
+            boolean sameThread = thread == Thread.currentThread();
+            long cpuNanos = sameThread && cpuTime != UNKNOWN ? cpuTime() - cpuTime : UNKNOWN;
+            long allocated = sameThread && allocatedBytes != UNKNOWN ? allocatedBytes() - allocatedBytes : UNKNOWN;
+            return new Measurement(suite, rule, SharedClassImport.imports() != imports, status,
+                SharedClassImport.importedClassFiles(), wallNanos, cpuNanos, allocated);
+        }
+    }
+
+    /**
+     * One rule of a suite: whether the classes were imported while it ran, the classes of the latest import and what
+     * the rule cost. CPU time and allocations are {@code -1} where the JVM doesn't measure them.
+     */
+    static final class Measurement {
+        final String suite;
+        final String rule;
+        final boolean imported;
+        final TestExecutionResult.Status status;
+        final int classes;
+        final long wallNanos;
+        final long cpuNanos;
+        final long allocatedBytes;
+
+        Measurement(String suite, String rule, boolean imported, TestExecutionResult.Status status, int classes,
+                    long wallNanos, long cpuNanos, long allocatedBytes) {
+            this.suite = suite;
+            this.rule = rule;
+            this.imported = imported;
+            this.status = status;
+            this.classes = classes;
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        String kind() {
+            return imported ? "import" : "rule";
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.archunit;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.core.importer.Location;
+import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.junit.LocationProvider;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared class import of all architecture suites.
+ *
+ * ArchUnit's JUnit 5 engine caches imported classes by their locations and import options, so as long as
+ * every suite declares the very same {@code @AnalyzeClasses} configuration, the application is imported once
+ * per JVM and handed to every rule class. Keep the root package here, the locations in {@link ApplicationLocations}
+ * and the import options in the suites identical; {@link TrackImports} counts the imports that actually happen, and
+ * {@code classes_are_imported_once_per_jvm} fails as soon as a suite triggers a second one.
+ */
+public final class SharedClassImport {
+
+    // Root package searched for the application under test - the only place to change it for all suites.
+    // The import itself is narrowed to the package of the @SpringBootApplication class, see ApplicationRoot
+    static final String ROOT_PACKAGE = "com";
+
+    private static final AtomicInteger IMPORTS = new AtomicInteger();
+    // Class files included by the latest import
+    private static final AtomicInteger IMPORTED_CLASS_FILES = new AtomicInteger();
+
+    private SharedClassImport() {
+    }
+
+    @ArchTest
+    static void classes_are_imported_once_per_jvm(JavaClasses classes) {
+        int imports = importCount();
+        if (imports > 1) {
+            throw new AssertionError(String.format(
+                "Classes were imported %d times in this JVM instead of once. Every suite must declare the same "
+                    + "@AnalyzeClasses configuration as SharedClassImport, and the JVM must not clear ArchUnit's "
+                    + "softly referenced class cache (see -XX:SoftRefLRUPolicyMSPerMB).", imports));
+        }
+    }
+
+    // Suites served from the import cache share one additional import of the affected classes only
+    static int importCount() {
+        return IMPORTS.get() - (ImportCache.partialImport() ? 1 : 0);
+    }
+
+    // Imports started in this JVM, including a partial one
+    static int imports() {
+        return IMPORTS.get();
+    }
+
+    // The classes the rules analyse, as far as imported in this JVM
+    static int importedClassFiles() {
+        return IMPORTED_CLASS_FILES.get();
+    }
+
+    /**
+     * Locations of the {@link ApplicationRoot} package, or only those of the changed classes for a suite the {@link ImportCache}
+     * knows to be green.
+     */
+    public static final class ApplicationLocations implements LocationProvider {
+        @Override
+        public Set<Location> get(Class<?> testClass) {
+            Set<Location> locations = ImportCache.locationsFor(testClass);
+            ArchitectureEvents.locationsResolved(locations);
+            return locations;
+        }
+    }
+
+    /**
+     * ArchUnit instantiates every import option exactly once per import, so counting instances counts imports.
+     * Being the last import option, it sees only the class files the other options include.
+     */
+    public static final class TrackImports implements ImportOption {
+        public TrackImports() {
+            IMPORTS.incrementAndGet();
+            IMPORTED_CLASS_FILES.set(0);
+            ArchitectureEvents.importStarted(ImportCache.partialImport());
+            HeapFootprint.importStarted();
+        }
+
+        @Override
+        public boolean includes(Location location) {
+            if (location.asURI().toString().endsWith(".class")) {
+                IMPORTED_CLASS_FILES.incrementAndGet();
+                ArchitectureEvents.classFileIncluded(location);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,464 @@
+package com.archunit;
+
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.lang.Priority;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static com.tngtech.archunit.base.DescribedPredicate.describe;
+
+/**
+ * Run modes applied to every rule of a suite. A mode is configured for all suites as {@code hexagonal.<mode>} and for
+ * a single suite as {@code hexagonal.<mode>.<suite>}, e.g. {@code hexagonal.violations.cap.CoreDomainArchitectureTest},
+ * which takes precedence.
+ *
+ * With {@code hexagonal.violations.cap=N} a rule stops after its first N violations and reports
+ * "N+ violations (truncated)", so a legacy code base fails in seconds instead of collecting every violation first;
+ * {@code 1} fails fast. With {@code hexagonal.violations.sink} every violation goes to a {@link ViolationSink} as soon
+ * as it is found, and the rule fails with the first few and where to find the rest.
+ *
+ * Either way the classes are evaluated in chunks, which is sound for rules checking single classes and their
+ * dependencies; ArchUnit only holds the violations of the current chunk. A capped rule starts with a chunk of as many
+ * classes as the cap and stops at the violation reaching it, so {@code 1} checks as few classes as possible. A
+ * {@link NarrowingRule} is narrowed once on all classes and its decorated rule is evaluated on chunks of the narrowed
+ * classes. Rules aggregating over all classes are created with {@link #aggregating} instead, they are evaluated on all
+ * classes at once and only their violations are capped or streamed.
+ *
+ * With {@code hexagonal.freeze=true} a rule fails on new violations only, the ones found on its first run are frozen
+ * in {@link FrozenViolations} under {@code hexagonal.freeze.path}. Freezing needs every violation, so it can't be
+ * combined with a cap or a sink.
+ *
+ * {@code hexagonal.budget.millis} and {@code hexagonal.budget.megabytes} budget the wall time and the allocations of
+ * a rule per 1,000 classes it evaluates, smaller imports get the budget of 1,000 classes. Besides the suite, a budget
+ * can be set for a single rule as {@code hexagonal.budget.millis.<suite>.<rule>}, named like its {@code @ArchTest}
+ * field or method. A rule over its budget is logged, or fails with {@code hexagonal.budget.fail=true}.
+ */
+final class SuiteRules {
+
+    static final String VIOLATION_CAP_PROPERTY = "hexagonal.violations.cap";
+    static final String VIOLATION_SINK_PROPERTY = "hexagonal.violations.sink";
+    static final String FREEZE_PROPERTY = "hexagonal.freeze";
+    static final String FREEZE_PATH_PROPERTY = "hexagonal.freeze.path";
+    static final String REFREEZE_PROPERTY = "hexagonal.freeze.refreeze";
+    static final String ALLOW_STORE_CREATION_PROPERTY = "hexagonal.freeze.allowStoreCreation";
+    static final String ALLOW_STORE_UPDATE_PROPERTY = "hexagonal.freeze.allowStoreUpdate";
+    static final String BUDGET_PREFIX = "hexagonal.budget";
+    static final String BUDGET_MILLIS_PROPERTY = BUDGET_PREFIX + ".millis";
+    static final String BUDGET_MEGABYTES_PROPERTY = BUDGET_PREFIX + ".megabytes";
+    static final String BUDGET_FAIL_PROPERTY = BUDGET_PREFIX + ".fail";
+
+    private static final Logger LOG = LoggerFactory.getLogger(SuiteRules.class);
+
+    // Largest first chunk, chunks grow fourfold when capped but not beyond it when streaming to keep the memory constant
+    private static final int FIRST_CHUNK_SIZE = 1024;
+    // Violations reported by a failing rule besides the location of all of them in the sink
+    private static final int SINK_SUMMARY_VIOLATIONS = 10;
+
+    private final Class<?> suite;
+
+    SuiteRules(Class<?> suite) {
+        this.suite = suite;
+    }
+
+    ArchRule rule(ArchRule rule) {
+        return budgeted(withModes(rule, true));
+    }
+
+    // For rules aggregating over all classes, which can't be evaluated in chunks
+    ArchRule aggregating(ArchRule rule) {
+        return budgeted(withModes(rule, false));
+    }
+
+    private ArchRule budgeted(ArchRule rule) {
+        return ArchConfiguration.get().getSubProperties(BUDGET_PREFIX).isEmpty() ? rule : new BudgetedRule(rule);
+    }
+
+    private ArchRule withModes(ArchRule rule, boolean chunked) {
+        int violationCap = Integer.parseInt(property(VIOLATION_CAP_PROPERTY, "0"));
+        ViolationSink sink = sink(property(VIOLATION_SINK_PROPERTY, ""));
+        if (Boolean.parseBoolean(property(FREEZE_PROPERTY, "false"))) {
+            if (violationCap > 0 || sink != null) {
+                throw new IllegalStateException(String.format("%s can't be combined with %s or %s in %s",
+                    FREEZE_PROPERTY, VIOLATION_CAP_PROPERTY, VIOLATION_SINK_PROPERTY, suite.getSimpleName()));
+            }
+            return new FrozenRule(rule);
+        }
+        return violationCap > 0 || sink != null
+            ? new ChunkedRule(rule, suite.getSimpleName(), violationCap > 0 ? violationCap : Integer.MAX_VALUE, sink, chunked)
+            : rule;
+    }
+
+    private String property(String name, String defaultValue) {
+        ArchConfiguration configuration = ArchConfiguration.get();
+        return configuration.getPropertyOrDefault(name + "." + suite.getSimpleName(),
+            configuration.getPropertyOrDefault(name, defaultValue));
+    }
+
+    // The budget of the rule, its suite or all suites, null without one
+    private Double budget(String property, String rule) {
+        String budget = rule == null ? property(property, "") : ArchConfiguration.get()
+            .getPropertyOrDefault(property + "." + suite.getSimpleName() + "." + rule, property(property, ""));
+        return budget.isEmpty() ? null : Double.valueOf(budget);
+    }
+
+    private static ViolationSink sink(String sink) {
+        if (sink.isEmpty()) {
+            return null;
+        }
+        if (sink.equals("ndjson")) {
+            return new NdjsonViolationSink();
+        }
+        try {
+            return (ViolationSink) Class.forName(sink).getConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Could not create the violation sink " + sink, e);
+        }
+    }
+
+    private static final class ChunkedRule implements ArchRule {
+        private final ArchRule rule;
+        private final String suite;
+        private final int violationCap;
+        private final ViolationSink sink;
+        private final boolean chunked;
+
+        ChunkedRule(ArchRule rule, String suite, int violationCap, ViolationSink sink, boolean chunked) {
+            this.rule = rule;
+            this.suite = suite;
+            this.violationCap = violationCap;
+            this.sink = sink;
+            this.chunked = chunked;
+        }
+
+        @Override
+        public void check(JavaClasses classes) {
+            Assertions.check(this, classes);
+        }
+
+        @Override
+        public EvaluationResult evaluate(JavaClasses classes) {
+            // Narrowed on all classes, so indexes and visits are built once and not for every chunk
+            ArchRule evaluated = rule;
+            JavaClasses narrowed = classes;
+            while (evaluated instanceof NarrowingRule) {
+                narrowed = ((NarrowingRule) evaluated).narrow(narrowed);
+                if (narrowed == null) {
+                    return new EvaluationResult(rule, Priority.MEDIUM);
+                }
+                evaluated = ((NarrowingRule) evaluated).decorated();
+            }
+            if (narrowed.isEmpty()) {
+                return evaluated.evaluate(narrowed);
+            }
+            Violations violations = new Violations();
+            AssertionError emptyShould = null;
+            boolean checked = false;
+            Iterator<JavaClass> remaining = narrowed.iterator();
+            try {
+                for (int chunkSize = chunked ? Math.min(violationCap, FIRST_CHUNK_SIZE) : narrowed.size();
+                     remaining.hasNext() && violations.count < violationCap; chunkSize = nextChunkSize(chunkSize)) {
+                    Set<JavaClass> chunk = new HashSet<>(Math.min(chunkSize, narrowed.size()) * 2);
+                    while (remaining.hasNext() && chunk.size() < chunkSize) {
+                        chunk.add(remaining.next());
+                    }
+                    JavaClasses chunkClasses = chunk.size() == narrowed.size() ? narrowed : narrowed.that(describe("chunk", chunk::contains));
+                    EvaluationResult result;
+                    try {
+                        result = evaluated.evaluate(chunkClasses);
+                        checked = true;
+                    } catch (AssertionError e) {
+                        // Only a chunk without classes to check passes once that is allowed, and it is only a failure
+                        // if the rule checks no class at all; any other failure is thrown again right here
+                        result = evaluated.allowEmptyShould(true).evaluate(chunkClasses);
+                        emptyShould = e;
+                    }
+                    result.handleViolations(violations::add);
+                }
+            } finally {
+                violations.close();
+            }
+            if (!checked && emptyShould != null) {
+                throw emptyShould;
+            }
+            violations.summarize(violations.count > violationCap || (violations.count == violationCap && remaining.hasNext()));
+            return new EvaluationResult(rule, violations.events, Priority.MEDIUM);
+        }
+
+        private int nextChunkSize(int chunkSize) {
+            return (int) Math.min(4L * chunkSize, sink == null ? Integer.MAX_VALUE : Math.max(chunkSize, FIRST_CHUNK_SIZE));
+        }
+
+        @Override
+        public ArchRule because(String reason) {
+            return new ChunkedRule(rule.because(reason), suite, violationCap, sink, chunked);
+        }
+
+        @Override
+        public ArchRule allowEmptyShould(boolean allowEmptyShould) {
+            return new ChunkedRule(rule.allowEmptyShould(allowEmptyShould), suite, violationCap, sink, chunked);
+        }
+
+        @Override
+        public ArchRule as(String newDescription) {
+            return new ChunkedRule(rule.as(newDescription), suite, violationCap, sink, chunked);
+        }
+
+        @Override
+        public String getDescription() {
+            return rule.getDescription();
+        }
+
+        @Override
+        public String toString() {
+            return rule.toString();
+        }
+
+        private final class Violations {
+            private final ConditionEvents events = ConditionEvents.Factory.create();
+            private final int reported = sink == null ? violationCap : Math.min(violationCap, SINK_SUMMARY_VIOLATIONS);
+            private ViolationSink.RuleViolations streamed;
+            private int count;
+
+            void add(Collection<Object> objects, String message) {
+                if (count++ >= violationCap) {
+                    return;
+                }
+                if (sink != null) {
+                    if (streamed == null) {
+                        streamed = sink.open(suite, rule.getDescription());
+                    }
+                    streamed.add(message);
+                }
+                if (count <= reported) {
+                    events.add(SimpleConditionEvent.violated(objects.size() == 1 ? objects.iterator().next() : objects, message));
+                }
+            }
+
+            void summarize(boolean truncated) {
+                String numberOfViolations = truncated
+                    ? String.format("%d+ violations (truncated)", violationCap)
+                    : String.format("%d times", count);
+                if (streamed != null) {
+                    numberOfViolations += count > reported
+                        ? String.format(", first %d shown, all in %s", reported, streamed.location())
+                        : String.format(", all in %s", streamed.location());
+                }
+                if (truncated || streamed != null) {
+                    events.setInformationAboutNumberOfViolations(numberOfViolations);
+                }
+            }
+
+            void close() {
+                if (streamed != null) {
+                    streamed.close();
+                }
+            }
+        }
+    }
+
+    private static final class FrozenRule implements ArchRule {
+        private final ArchRule rule;
+
+        FrozenRule(ArchRule rule) {
+            this.rule = rule;
+        }
+
+        @Override
+        public void check(JavaClasses classes) {
+            Assertions.check(this, classes);
+        }
+
+        @Override
+        public EvaluationResult evaluate(JavaClasses classes) {
+            EvaluationResult result = rule.evaluate(classes);
+            ArchConfiguration configuration = ArchConfiguration.get();
+            String description = rule.getDescription();
+            Path file = FrozenViolations.file(Paths.get(configuration.getPropertyOrDefault(FREEZE_PATH_PROPERTY, "archunit-freeze")),
+                description);
+
+            // Evaluated before taking the lock, only reading, matching and writing the store is serialized
+            return FrozenViolations.locked(file, () -> freeze(result, file, description, configuration));
+        }
+
+        private EvaluationResult freeze(EvaluationResult result, Path file, String description, ArchConfiguration configuration) {
+            boolean exists = Files.exists(file);
+            // Classes served from the import cache are not evaluated, their frozen violations must not look solved
+            boolean partialImport = ImportCache.partialImport();
+            if (!exists && partialImport) {
+                return result;
+            }
+            if (!exists || Boolean.parseBoolean(configuration.getPropertyOrDefault(REFREEZE_PROPERTY, "false")) && !partialImport) {
+                if (!exists && !Boolean.parseBoolean(configuration.getPropertyOrDefault(ALLOW_STORE_CREATION_PROPERTY, "false"))) {
+                    throw new IllegalStateException(String.format(
+                        "Freezing the violations of rule '%s' in a new store is disabled (enable with %s=true)",
+                        description, ALLOW_STORE_CREATION_PROPERTY));
+                }
+                FrozenViolations violations = new FrozenViolations();
+                result.handleViolations((Collection<Object> objects, String message) -> violations.add(FrozenViolations.hash(message)));
+                violations.write(file, description);
+                return new EvaluationResult(rule, Priority.MEDIUM);
+            }
+
+            FrozenViolations frozen = FrozenViolations.read(file, description);
+            FrozenViolations stillFrozen = new FrozenViolations();
+            ConditionEvents events = ConditionEvents.Factory.create();
+            result.handleViolations((Collection<Object> objects, String message) -> {
+                long hash = FrozenViolations.hash(message);
+                if (frozen.remove(hash)) {
+                    stillFrozen.add(hash);
+                } else {
+                    events.add(SimpleConditionEvent.violated(objects.size() == 1 ? objects.iterator().next() : objects, message));
+                }
+            });
+            // Solved violations are dropped from the store, so they can't come back unnoticed
+            if (frozen.size() > 0 && !partialImport) {
+                if (!Boolean.parseBoolean(configuration.getPropertyOrDefault(ALLOW_STORE_UPDATE_PROPERTY, "true"))) {
+                    throw new IllegalStateException(String.format(
+                        "Removing %d solved violations of rule '%s' from the store is disabled (enable with %s=true)",
+                        frozen.size(), description, ALLOW_STORE_UPDATE_PROPERTY));
+                }
+                stillFrozen.write(file, description);
+            }
+            return new EvaluationResult(rule, events, Priority.MEDIUM);
+        }
+
+        @Override
+        public ArchRule because(String reason) {
+            return new FrozenRule(rule.because(reason));
+        }
+
+        @Override
+        public ArchRule allowEmptyShould(boolean allowEmptyShould) {
+            return new FrozenRule(rule.allowEmptyShould(allowEmptyShould));
+        }
+
+        @Override
+        public ArchRule as(String newDescription) {
+            return new FrozenRule(rule.as(newDescription));
+        }
+
+        @Override
+        public String getDescription() {
+            return rule.getDescription();
+        }
+
+        @Override
+        public String toString() {
+            return rule.toString();
+        }
+    }
+
+    private final class BudgetedRule implements ArchRule {
+        private final ArchRule rule;
+
+        BudgetedRule(ArchRule rule) {
+            this.rule = rule;
+        }
+
+        @Override
+        public void check(JavaClasses classes) {
+            Assertions.check(this, classes);
+        }
+
+        @Override
+        public EvaluationResult evaluate(JavaClasses classes) {
+            long allocatedBefore = RulePerformanceListener.allocatedBytes();
+            long start = System.nanoTime();
+            EvaluationResult result = rule.evaluate(classes);
+            double millis = (System.nanoTime() - start) / 1e6;
+            double megabytes = allocatedBefore < 0 ? -1 : (RulePerformanceListener.allocatedBytes() - allocatedBefore) / 1e6;
+
+            String name = name();
+            double thousands = Math.max(classes.size(), 1000) / 1000.0;
+            List<String> exceeded = new ArrayList<>();
+            Double millisBudget = budget(BUDGET_MILLIS_PROPERTY, name);
+            if (millisBudget != null && millis > millisBudget * thousands) {
+                exceeded.add(String.format(Locale.ROOT, "took %,.1f ms instead of at most %,.1f ms (%s ms per 1,000 classes)",
+                    millis, millisBudget * thousands, millisBudget));
+            }
+            Double megabytesBudget = budget(BUDGET_MEGABYTES_PROPERTY, name);
+            if (megabytesBudget != null && megabytes > megabytesBudget * thousands) {
+                exceeded.add(String.format(Locale.ROOT, "allocated %,.1f MB instead of at most %,.1f MB (%s MB per 1,000 classes)",
+                    megabytes, megabytesBudget * thousands, megabytesBudget));
+            }
+            if (exceeded.isEmpty()) {
+                return result;
+            }
+            String message = String.format(Locale.ROOT, "%s.%s on %,d classes %s", suite.getSimpleName(),
+                name == null ? rule.getDescription() : name, classes.size(), String.join(" and ", exceeded));
+            if (!Boolean.parseBoolean(property(BUDGET_FAIL_PROPERTY, "false"))) {
+                LOG.warn("Over budget: {}", message);
+                return result;
+            }
+            ConditionEvents events = ConditionEvents.Factory.create();
+            events.add(SimpleConditionEvent.violated(classes, "Over budget: " + message));
+            result.add(new EvaluationResult(this, events, result.getPriority()));
+            return result;
+        }
+
+        // The @ArchTest field holding this rule, or else the @ArchTest method evaluating it
+        private String name() {
+            for (Field field : suite.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) && ArchRule.class.isAssignableFrom(field.getType())) {
+                    try {
+                        field.setAccessible(true);
+                        if (field.get(null) == this) {
+                            return field.getName();
+                        }
+                    } catch (IllegalAccessException | RuntimeException e) {
+                        // Not this rule then
+                    }
+                }
+            }
+            return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE).walk(frames -> frames
+                .filter(frame -> frame.getDeclaringClass() == suite)
+                .map(StackWalker.StackFrame::getMethodName)
+                .findFirst()
+                .orElse(null));
+        }
+
+        @Override
+        public ArchRule because(String reason) {
+            return new BudgetedRule(rule.because(reason));
+        }
+
+        @Override
+        public ArchRule allowEmptyShould(boolean allowEmptyShould) {
+            return new BudgetedRule(rule.allowEmptyShould(allowEmptyShould));
+        }
+
+        @Override
+        public ArchRule as(String newDescription) {
+            return new BudgetedRule(rule.as(newDescription));
+        }
+
+        @Override
+        public String getDescription() {
+            return rule.getDescription();
+        }
+
+        @Override
+        public String toString() {
+            return rule.toString();
+        }
+    }
+}
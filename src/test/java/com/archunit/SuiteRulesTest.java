@@ -0,0 +1,137 @@
+package com.archunit;
+
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuiteRulesTest {
+
+    private static final ClassIndex.Candidates ADAPTERS = ClassIndex.simpleNameEndingWith("Adapter");
+
+    private static final JavaClasses CLASSES = new ClassFileImporter().importClasses(
+        OrderAdapter.class, CustomerAdapter.class, PaymentAdapter.class, Order.class, Customer.class, Payment.class);
+
+    @Test
+    void stops_at_the_violation_reaching_the_cap() {
+        List<String> checked = new ArrayList<>();
+
+        EvaluationResult result = capped(1, suite -> suite.rule(violatedByEveryClass(checked)));
+
+        assertEquals(1, result.getFailureReport().getDetails().size());
+        assertEquals(1, checked.size(), checked::toString);
+        assertTrue(result.getFailureReport().toString().contains("1+ violations (truncated)"), result.getFailureReport()::toString);
+    }
+
+    @Test
+    void narrows_once_on_all_classes_before_chunking() {
+        List<String> checked = new ArrayList<>();
+        ClassIndex index = ClassIndex.of(CLASSES);
+
+        EvaluationResult result = capped(2, suite -> suite.rule(ClassIndex.among(ADAPTERS, violatedByEveryClass(checked))));
+
+        assertEquals(2, result.getFailureReport().getDetails().size());
+        assertTrue(checked.stream().allMatch(name -> name.endsWith("Adapter")), checked::toString);
+        assertSame(index, ClassIndex.of(CLASSES));
+    }
+
+    @Test
+    void evaluates_aggregating_rules_on_all_classes_at_once() {
+        List<Integer> evaluated = new ArrayList<>();
+
+        EvaluationResult result = capped(2, suite -> suite.aggregating(classes().should(new ArchCondition<JavaClass>("be checked") {
+            @Override
+            public void init(Collection<JavaClass> allObjectsToTest) {
+                evaluated.add(allObjectsToTest.size());
+            }
+
+            @Override
+            public void check(JavaClass javaClass, ConditionEvents events) {
+                events.add(SimpleConditionEvent.violated(javaClass, javaClass.getName() + " was checked"));
+            }
+        })));
+
+        assertEquals(List.of(CLASSES.size()), evaluated);
+        assertEquals(2, result.getFailureReport().getDetails().size());
+    }
+
+    @Test
+    void fails_on_an_empty_selection_only_if_no_chunk_selects_a_class() {
+        EvaluationResult result = capped(1, suite -> suite.rule(classes().that().haveSimpleNameEndingWith("Payment")
+            .should().haveSimpleNameStartingWith("Pay")));
+
+        assertFalse(result.hasViolation(), result.getFailureReport()::toString);
+        AssertionError emptyShould = assertThrows(AssertionError.class, () -> capped(1, suite -> suite.rule(
+            classes().that().haveSimpleNameEndingWith("Invoice").should().haveSimpleNameStartingWith("Inv"))));
+        assertTrue(emptyShould.getMessage().contains("failed to check any classes"), emptyShould::getMessage);
+    }
+
+    @Test
+    void throws_other_assertion_errors_of_a_chunk() {
+        AssertionError thrown = assertThrows(AssertionError.class, () -> capped(1, suite -> suite.rule(
+            classes().should(new ArchCondition<JavaClass>("be checked") {
+                @Override
+                public void check(JavaClass javaClass, ConditionEvents events) {
+                    if (javaClass.getSimpleName().equals("Payment")) {
+                        throw new AssertionError(javaClass.getName() + " could not be checked");
+                    }
+                }
+            }))));
+
+        assertTrue(thrown.getMessage().endsWith("could not be checked"), thrown::getMessage);
+    }
+
+    private static EvaluationResult capped(int violationCap, Function<SuiteRules, ArchRule> rule) {
+        return ArchConfiguration.withThreadLocalScope(configuration -> {
+            configuration.setProperty(SuiteRules.VIOLATION_CAP_PROPERTY + "." + SuiteRulesTest.class.getSimpleName(),
+                String.valueOf(violationCap));
+            return rule.apply(new SuiteRules(SuiteRulesTest.class)).evaluate(CLASSES);
+        });
+    }
+
+    private static ArchRule violatedByEveryClass(List<String> checked) {
+        return classes().should(new ArchCondition<JavaClass>("be checked") {
+            @Override
+            public void check(JavaClass javaClass, ConditionEvents events) {
+                checked.add(javaClass.getName());
+                events.add(SimpleConditionEvent.violated(javaClass, javaClass.getName() + " was checked"));
+            }
+        });
+    }
+
+    private static final class OrderAdapter {
+    }
+
+    private static final class CustomerAdapter {
+    }
+
+    private static final class PaymentAdapter {
+    }
+
+    private static final class Order {
+    }
+
+    private static final class Customer {
+    }
+
+    private static final class Payment {
+    }
+}
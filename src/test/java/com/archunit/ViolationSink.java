@@ -0,0 +1,25 @@
+package com.archunit;
+
+import java.io.Closeable;
+
+/**
+ * Receives the violations of a rule while it is evaluated, so they need not be held in memory until it finishes.
+ * Configured with {@code hexagonal.violations.sink}: {@code ndjson} for {@link NdjsonViolationSink}, or the name of
+ * a class implementing this interface with a public no-arg constructor.
+ */
+interface ViolationSink {
+
+    // Called on the first violation of a rule
+    RuleViolations open(String suite, String rule);
+
+    interface RuleViolations extends Closeable {
+
+        void add(String message);
+
+        // Where the violations went, for the failure message of the rule
+        String location();
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,31 @@
+package com.archunit;
+
+import com.tngtech.archunit.ArchConfiguration;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Starts the files of the {@link NdjsonViolationSink} over for every suite of the test plan that writes its violations
+ * there, before any rule runs. Registered like the {@link ImportCacheListener}.
+ */
+public class ViolationSinkListener implements TestExecutionListener {
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        ArchConfiguration configuration = ArchConfiguration.get();
+        String sink = configuration.getPropertyOrDefault(SuiteRules.VIOLATION_SINK_PROPERTY, "");
+        Set<String> suites = new TreeSet<>();
+        testPlan.getRoots().forEach(root -> testPlan.getDescendants(root).forEach(testIdentifier ->
+            ImportCacheListener.suiteOf(testIdentifier)
+                .map(suite -> suite.substring(suite.lastIndexOf('.') + 1))
+                .filter(suite -> "ndjson".equals(configuration.getPropertyOrDefault(
+                    SuiteRules.VIOLATION_SINK_PROPERTY + "." + suite, sink)))
+                .ifPresent(suites::add)));
+        if (!suites.isEmpty()) {
+            NdjsonViolationSink.reset(suites);
+        }
+    }
+}